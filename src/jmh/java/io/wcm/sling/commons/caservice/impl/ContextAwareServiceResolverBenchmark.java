@@ -0,0 +1,202 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.caservice.impl;
+
+import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_PATTERN;
+import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_PREFIX;
+import static org.osgi.framework.Constants.SERVICE_RANKING;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.SyntheticResource;
+import org.apache.sling.testing.mock.osgi.MockOsgi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+
+import io.wcm.sling.commons.caservice.ContextAwareServiceCollectionResolver;
+import io.wcm.sling.commons.caservice.ContextAwareServiceResolver;
+import io.wcm.sling.commons.caservice.ContextAwareServiceResolver.ResolveAllResult;
+
+/**
+ * Benchmarks the context-aware service resolution with a mocked OSGi service registry.
+ * Each service is bound to its own site path, an additional default service without path restriction matches all paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextAwareServiceResolverBenchmark {
+
+  private static final int PATH_COUNT = 1024;
+
+  /**
+   * Number of registered context-aware services.
+   */
+  @Param({ "10", "100", "1000" })
+  public int serviceCount;
+
+  /**
+   * How the services declare their context path: "prefix" uses path prefixes, "simple" a plain regular expression,
+   * "complex" a regular expression with alternation and repeated groups.
+   */
+  @Param({ "prefix", "simple", "complex" })
+  public String pathMatching;
+
+  /**
+   * Number of path segments below the site path of the resolved resources.
+   */
+  @Param({ "2", "8" })
+  public int pathDepth;
+
+  /**
+   * Ratio of resolved resources located below a site path of a service, the others only match the default service.
+   */
+  @Param({ "1.0", "0.5", "0.0" })
+  public double hitRatio;
+
+  private BundleContext bundleContext;
+  private ContextAwareServiceResolver resolver;
+  private ContextAwareServiceCollectionResolver<DummySpi, DummySpiDecorator> collectionResolver;
+  private Resource[] resources;
+  private int index;
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("null")
+  public void setUp() throws Exception {
+    bundleContext = MockOsgi.newBundleContext();
+    registerService(new DummySpiImpl("default"), Integer.MIN_VALUE, null, null);
+    for (int i = 0; i < serviceCount; i++) {
+      registerService(new DummySpiImpl("site" + i), i, getPathPrefix(i), getPathPattern(i));
+    }
+    resolver = MockOsgi.registerInjectActivateService(ContextAwareServiceResolverImpl.class, bundleContext);
+
+    List<ServiceReference<DummySpi>> serviceReferences = new ArrayList<>(bundleContext.getServiceReferences(DummySpi.class, null));
+    Collections.sort(serviceReferences, Collections.reverseOrder());
+    collectionResolver = resolver.getCollectionResolver(serviceReferences,
+        (ref, service) -> new DummySpiDecorator(service));
+
+    Random random = new Random(0);
+    resources = new Resource[PATH_COUNT];
+    for (int i = 0; i < PATH_COUNT; i++) {
+      int site = random.nextInt(serviceCount);
+      StringBuilder path = new StringBuilder();
+      if (random.nextDouble() < hitRatio) {
+        path.append(getSitePath(site));
+      }
+      else {
+        path.append("/content/other").append(site);
+      }
+      for (int depth = 1; depth <= pathDepth; depth++) {
+        path.append("/level").append(depth);
+      }
+      resources[i] = new SyntheticResource(null, path.toString(), null);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    collectionResolver.close();
+    MockOsgi.deactivate(resolver, bundleContext);
+    MockOsgi.shutdown(bundleContext);
+  }
+
+  private void registerService(DummySpi service, int ranking, String pathPrefix, String pathPattern) {
+    Hashtable<String, Object> props = new Hashtable<>();
+    props.put(SERVICE_RANKING, ranking);
+    if (pathPrefix != null) {
+      props.put(PROPERTY_CONTEXT_PATH_PREFIX, pathPrefix);
+    }
+    if (pathPattern != null) {
+      props.put(PROPERTY_CONTEXT_PATH_PATTERN, pathPattern);
+    }
+    bundleContext.registerService(DummySpi.class, service, props);
+  }
+
+  private String getPathPrefix(int site) {
+    return "prefix".equals(pathMatching) ? getSitePath(site) : null;
+  }
+
+  private String getPathPattern(int site) {
+    switch (pathMatching) {
+      case "prefix":
+        return null;
+      case "simple":
+        return "^" + getSitePath(site) + "(/.*)?$";
+      case "complex":
+        return "^/content/(site" + site + "|site" + site + "-legacy)(/[a-z0-9_-]+)*(/jcr:content(/.*)?)?$";
+      default:
+        throw new IllegalArgumentException("Invalid path matching: " + pathMatching);
+    }
+  }
+
+  private static String getSitePath(int site) {
+    return "/content/site" + site;
+  }
+
+  private Resource nextResource() {
+    index = (index + 1) & (PATH_COUNT - 1);
+    return resources[index];
+  }
+
+  @Benchmark
+  public DummySpi resolve() {
+    return resolver.resolve(DummySpi.class, nextResource());
+  }
+
+  @Benchmark
+  public void resolveAllCombinedKey(Blackhole blackhole) {
+    ResolveAllResult<DummySpi> result = resolver.resolveAll(DummySpi.class, nextResource());
+    result.getServices().forEach(blackhole::consume);
+    blackhole.consume(result.getCombinedKey());
+  }
+
+  @Benchmark
+  public DummySpi collectionResolve() {
+    return collectionResolver.resolve(nextResource());
+  }
+
+  @Benchmark
+  public void collectionResolveAllDecorated(Blackhole blackhole) {
+    collectionResolver.resolveAllDecorated(nextResource()).forEach(blackhole::consume);
+  }
+
+}
@@ -64,6 +64,29 @@ public interface ContextAwareService {
   @NotNull
   String PROPERTY_CONTEXT_PATH_BLACKLIST_PATTERN = "Wcmio-CAService-ContextPathBlacklistRegex";
 
+  /**
+   * Context path whitelist prefixes.
+   * Service property or bundle header defining one or multiple path prefixes the context resource path is matched
+   * against. A prefix matches the path itself and all descendant paths, e.g. <code>/content/dam</code> matches
+   * <code>/content/dam</code> and <code>/content/dam/asset1</code>, but not <code>/content/dam2</code>.
+   * Multiple prefixes can be given as string array service property or comma-separated.
+   * Only if the path is matching one of the prefixes the service is considered as candidate.
+   * If the property is not set all resource paths are accepted.
+   * Can be combined with {@link #PROPERTY_CONTEXT_PATH_PATTERN}, in this case both have to match.
+   */
+  @NotNull
+  String PROPERTY_CONTEXT_PATH_PREFIX = "Wcmio-CAService-ContextPathPrefix";
+
+  /**
+   * Context path blacklist prefixes.
+   * Service property or bundle header defining one or multiple path prefixes the context resource path is matched
+   * against. Multiple prefixes can be given as string array service property or comma-separated.
+   * If the path is matching one of the prefixes the service is not considered as candidate.
+   * If the property is not set no resource paths are blacklisted.
+   */
+  @NotNull
+  String PROPERTY_CONTEXT_PATH_BLACKLIST_PREFIX = "Wcmio-CAService-ContextPathBlacklistPrefix";
+
   /**
    * Accepts empty context paths.
    * Service property or bundle header that can be set to "true" to signal that this service implementation also should
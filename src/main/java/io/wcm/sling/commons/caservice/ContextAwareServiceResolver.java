@@ -65,6 +65,13 @@ public interface ContextAwareServiceResolver {
    */
   <S extends ContextAwareService> @NotNull ResolveAllResult<S> resolveAll(@NotNull Class<S> serviceClass, @Nullable Adaptable adaptable);
 
+  /**
+   * Gets a counter that is incremented each time a context-aware service tracked by this resolver is registered
+   * or unregistered. Results derived from resolved services can be invalidated when the value changes.
+   * @return Service change generation
+   */
+  long getServiceChangeGeneration();
+
   /**
    * Gets a {@link ContextAwareServiceCollectionResolver} which operates on a given collection of service references
    * of the required service. This collection is usually managed by OSGi Declarative Services and expected
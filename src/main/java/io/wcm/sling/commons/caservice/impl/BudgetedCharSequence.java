@@ -0,0 +1,104 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.caservice.impl;
+
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Char sequence that limits the number of character accesses of a regular expression matcher.
+ * As the regex engine reads the input via {@link #charAt(int)} for each matching step including backtracking,
+ * this puts an upper bound on the time spent for matching a pathological pattern against a long input.
+ */
+final class BudgetedCharSequence implements CharSequence {
+
+  /**
+   * Min. number of character accesses allowed for a single match operation.
+   */
+  static final int MIN_STEPS = 10000;
+
+  /**
+   * Number of additional character accesses allowed per input character.
+   */
+  static final int STEPS_PER_CHAR = 200;
+
+  private final String value;
+  private int remainingSteps;
+
+  private BudgetedCharSequence(@NotNull String value, int maxSteps) {
+    this.value = value;
+    this.remainingSteps = maxSteps;
+  }
+
+  @Override
+  public int length() {
+    return value.length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (--remainingSteps < 0) {
+      throw MatchBudgetExceededException.INSTANCE;
+    }
+    return value.charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return value.subSequence(start, end);
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+
+  /**
+   * Matches the given pattern against the full input with a limited number of matching steps.
+   * @param pattern Pattern
+   * @param value Input value
+   * @return true if the pattern matches
+   * @throws MatchBudgetExceededException if the matching step budget was exceeded
+   */
+  static boolean matches(@NotNull Pattern pattern, @NotNull String value) {
+    return pattern.matcher(new BudgetedCharSequence(value, getMaxSteps(value.length()))).matches();
+  }
+
+  static int getMaxSteps(int length) {
+    return (int)Math.min(Integer.MAX_VALUE, MIN_STEPS + (long)STEPS_PER_CHAR * length);
+  }
+
+  /**
+   * Signals that the matching step budget was exceeded.
+   * Preallocated without stack trace, as it may be thrown frequently.
+   */
+  static final class MatchBudgetExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    static final MatchBudgetExceededException INSTANCE = new MatchBudgetExceededException();
+
+    private MatchBudgetExceededException() {
+      super("Regex match step budget exceeded.", null, false, false);
+    }
+
+  }
+
+}
@@ -20,7 +20,11 @@
 package io.wcm.sling.commons.caservice.impl;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -38,6 +42,9 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,13 +62,36 @@ import io.wcm.sling.commons.caservice.PathPreprocessor;
  * {@link ContextAwareServiceResolver} implementation.
  */
 @Component(service = ContextAwareServiceResolver.class, immediate = true)
+@Designate(ocd = ContextAwareServiceResolverImpl.Config.class)
 public class ContextAwareServiceResolverImpl implements ContextAwareServiceResolver {
 
+  @ObjectClassDefinition(
+      name = "wcm.io Context-Aware Service Resolver",
+      description = "Resolves the best-matching context-aware service implementation.")
+  @interface Config {
+
+    @AttributeDefinition(
+        name = "Hot Context Paths",
+        description = "List of context paths for which the service resolution is precomputed in background each time "
+            + "the registered services change. The paths are matched exactly, not as prefix, against the context "
+            + "resource path - for requests the content resource of the current page, e.g. /content/site/en/home/jcr:content.")
+    String[] hotContextPaths() default {};
+
+    @AttributeDefinition(
+        name = "Learn Hot Context Paths",
+        description = "Max. number of hot context paths learned from the observed traffic in addition to the configured ones. "
+            + "The learned paths are exact context resource paths shared by all service interfaces. 0 disables learning.")
+    int hotContextPathsLearnMaxSize() default 0;
+
+  }
+
   @Reference(policy = ReferencePolicy.STATIC, cardinality = ReferenceCardinality.OPTIONAL, policyOption = ReferencePolicyOption.GREEDY)
   private PathPreprocessor pathPreprocessor;
 
   private BundleContext bundleContext;
   private ResourcePathResolver resourcePathResolver;
+  private ExecutorService precomputeExecutor;
+  private final AtomicLong serviceChangeGeneration = new AtomicLong();
 
   // cache of service trackers for each SPI interface
   private LoadingCache<String, ContextAwareServiceTracker<ContextAwareService>> serviceTrackerCache;
@@ -69,22 +99,36 @@ public class ContextAwareServiceResolverImpl implements ContextAwareServiceResol
   private static final Logger log = LoggerFactory.getLogger(ContextAwareServiceResolverImpl.class);
 
   @Activate
-  private void activate(BundleContext context) {
+  private void activate(BundleContext context, Config config) {
     this.bundleContext = context;
     this.resourcePathResolver = new ResourcePathResolver(pathPreprocessor);
-    this.serviceTrackerCache = buildServiceTrackerCache(context);
+    HotContextPaths hotContextPaths = new HotContextPaths(config.hotContextPaths(), config.hotContextPathsLearnMaxSize());
+    if (hotContextPaths.isEnabled()) {
+      this.precomputeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "wcm.io Context-Aware Service Precomputation");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    this.serviceTrackerCache = buildServiceTrackerCache(context, hotContextPaths, precomputeExecutor,
+        serviceChangeGeneration::incrementAndGet);
   }
 
   @Deactivate
   private void deactivate() {
     this.serviceTrackerCache.invalidateAll();
+    if (this.precomputeExecutor != null) {
+      this.precomputeExecutor.shutdownNow();
+    }
   }
 
   private static <S extends ContextAwareService> LoadingCache<String, ContextAwareServiceTracker<S>> buildServiceTrackerCache(
-      BundleContext bundleContext) {
+      BundleContext bundleContext, HotContextPaths hotContextPaths, ExecutorService precomputeExecutor,
+      Runnable serviceChangeListener) {
     return Caffeine.newBuilder()
         .removalListener((String key, ContextAwareServiceTracker<S> value, RemovalCause reason) -> value.dispose())
-        .build(className -> new ContextAwareServiceTracker<>(className, bundleContext));
+        .build(className -> new ContextAwareServiceTracker<>(className, bundleContext, hotContextPaths, precomputeExecutor,
+            serviceChangeListener));
   }
 
   @Override
@@ -99,9 +143,12 @@ public class ContextAwareServiceResolverImpl implements ContextAwareServiceResol
   public <S extends ContextAwareService> @NotNull ResolveAllResult<S> resolveAll(@NotNull Class<S> serviceClass,
       @Nullable Adaptable adaptable) {
     ContextAwareServiceTracker<S> serviceTracker = getServiceTracker(serviceClass);
-    Stream<S> services = getValidServices(getMatchingServiceInfos(serviceTracker, adaptable));
+    // resolve only once, each resolution is recorded as access to the hot context paths
+    List<ServiceInfo<S>> serviceInfos = getMatchingServiceInfos(serviceTracker, adaptable)
+        .collect(Collectors.toList());
+    Stream<S> services = getValidServices(serviceInfos.stream());
     Supplier<String> combinedKey = buildCombinedKey(serviceTracker.getLastServiceChangeTimestamp(),
-        getMatchingServiceInfos(serviceTracker, adaptable));
+        serviceInfos.stream());
     return new ResolveAllResultImpl<>(services, combinedKey);
   }
 
@@ -141,6 +188,11 @@ public class ContextAwareServiceResolverImpl implements ContextAwareServiceResol
     return serviceTrackerCache.asMap();
   }
 
+  @Override
+  public long getServiceChangeGeneration() {
+    return serviceChangeGeneration.get();
+  }
+
   @SuppressWarnings("null")
   private static <S extends ContextAwareService> Stream<S> getValidServices(Stream<ServiceInfo<S>> serviceInfos) {
     return serviceInfos
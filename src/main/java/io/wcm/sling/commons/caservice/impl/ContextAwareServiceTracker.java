@@ -19,6 +19,14 @@
  */
 package io.wcm.sling.commons.caservice.impl;
 
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.sling.commons.osgi.Order;
@@ -41,12 +49,39 @@ class ContextAwareServiceTracker<S extends ContextAwareService> implements Servi
   private final ServiceTracker<S, ServiceInfo<S>> serviceTracker;
   private volatile RankedServices<ServiceInfo<S>> rankedServices;
   private volatile long lastServiceChange;
+  private volatile ContextPathIndex<S> contextPathIndex;
+
+  // precomputed resolutions for hot context paths
+  private final HotContextPaths hotContextPaths;
+  private final Executor precomputeExecutor;
+  private final Runnable serviceChangeListener;
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicBoolean precomputeScheduled = new AtomicBoolean();
+  private volatile PrecomputedResolutions<S> precomputed = new PrecomputedResolutions<>(-1);
 
   private static final Logger log = LoggerFactory.getLogger(ContextAwareServiceTracker.class);
 
-  ContextAwareServiceTracker(@NotNull String serviceClassName, @NotNull BundleContext bundleContext) {
+  /**
+   * @param serviceClassName Service interface or class name
+   * @param bundleContext Bundle context
+   * @param hotContextPaths Context paths to precompute resolutions for, or null if disabled
+   * @param precomputeExecutor Executor for background precomputation, or null if disabled
+   * @param serviceChangeListener Called on each service registration or unregistration
+   */
+  ContextAwareServiceTracker(@NotNull String serviceClassName, @NotNull BundleContext bundleContext,
+      @Nullable HotContextPaths hotContextPaths, @Nullable Executor precomputeExecutor,
+      @NotNull Runnable serviceChangeListener) {
     this.serviceClassName = serviceClassName;
+    this.serviceChangeListener = serviceChangeListener;
     this.bundleContext = bundleContext;
+    if (hotContextPaths != null && hotContextPaths.isEnabled() && precomputeExecutor != null) {
+      this.hotContextPaths = hotContextPaths;
+      this.precomputeExecutor = precomputeExecutor;
+    }
+    else {
+      this.hotContextPaths = null;
+      this.precomputeExecutor = null;
+    }
     this.rankedServices = new RankedServices<>(Order.DESCENDING);
     this.serviceTracker = new ServiceTracker<>(bundleContext, serviceClassName, this);
     this.serviceTracker.open();
@@ -55,6 +90,8 @@ class ContextAwareServiceTracker<S extends ContextAwareService> implements Servi
   public void dispose() {
     serviceTracker.close();
     rankedServices = null;
+    contextPathIndex = null;
+    precomputed = new PrecomputedResolutions<>(-1);
   }
 
   @Override
@@ -65,6 +102,7 @@ class ContextAwareServiceTracker<S extends ContextAwareService> implements Servi
       rankedServices.bind(serviceInfo, serviceInfo.getServiceProperties());
     }
     lastServiceChange = System.currentTimeMillis();
+    serviceSnapshotChanged();
     return serviceInfo;
   }
 
@@ -80,15 +118,100 @@ class ContextAwareServiceTracker<S extends ContextAwareService> implements Servi
       rankedServices.unbind(serviceInfo, serviceInfo.getServiceProperties());
     }
     lastServiceChange = System.currentTimeMillis();
+    serviceSnapshotChanged();
     bundleContext.ungetService(reference);
   }
 
   public Stream<ServiceInfo<S>> resolve(@Nullable String resourcePath) {
-    if (rankedServices == null) {
+    ContextPathIndex<S> index = getIndex();
+    if (index == null) {
       return Stream.empty();
     }
-    return rankedServices.getList().stream()
-        .filter(serviceInfo -> serviceInfo.matches(resourcePath));
+    if (hotContextPaths != null && hotContextPaths.record(resourcePath)) {
+      return getPrecomputed(index, resourcePath).stream();
+    }
+    return index.resolve(resourcePath);
+  }
+
+  /**
+   * Gets the path prefix index for the current services snapshot, rebuilds it if the services have changed.
+   * @return Index or null if tracker is disposed
+   */
+  private @Nullable ContextPathIndex<S> getIndex() {
+    ContextPathIndex<S> index = this.contextPathIndex;
+    // read generation before services list - a concurrent change always leads to a newer generation
+    long currentGeneration = generation.get();
+    if (index != null && index.getGeneration() == currentGeneration) {
+      return index;
+    }
+    RankedServices<ServiceInfo<S>> services = rankedServices;
+    if (services == null) {
+      return null;
+    }
+    index = new ContextPathIndex<>(currentGeneration, services.getList());
+    this.contextPathIndex = index;
+    return index;
+  }
+
+  /**
+   * Gets matching services for a hot context path from the precomputed resolutions.
+   * If the precomputed resolutions are outdated the matching is calculated on the fly.
+   */
+  private List<ServiceInfo<S>> getPrecomputed(@NotNull ContextPathIndex<S> index, @NotNull String resourcePath) {
+    PrecomputedResolutions<S> snapshot = this.precomputed;
+    if (snapshot.generation != index.getGeneration()) {
+      return getMatching(index, resourcePath);
+    }
+    List<ServiceInfo<S>> result = snapshot.matches.get(resourcePath);
+    if (result == null) {
+      // hot path learned after last precomputation - add it to current snapshot
+      result = getMatching(index, resourcePath);
+      if (snapshot.matches.size() < hotContextPaths.getMaxSize()) {
+        snapshot.matches.putIfAbsent(resourcePath, result);
+      }
+    }
+    return result;
+  }
+
+  private static <S extends ContextAwareService> List<ServiceInfo<S>> getMatching(
+      @NotNull ContextPathIndex<S> index, @NotNull String resourcePath) {
+    return index.resolve(resourcePath)
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  /**
+   * Invalidates precomputed resolutions and schedules a background precomputation for the new service snapshot.
+   * Multiple changes in short order are coalesced into a single precomputation.
+   */
+  private void serviceSnapshotChanged() {
+    generation.incrementAndGet();
+    serviceChangeListener.run();
+    if (hotContextPaths == null || !precomputeScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      precomputeExecutor.execute(this::precompute);
+    }
+    catch (RejectedExecutionException ex) {
+      precomputeScheduled.set(false);
+      log.debug("Unable to schedule precomputation for {}: {}", serviceClassName, ex.getMessage());
+    }
+  }
+
+  private void precompute() {
+    precomputeScheduled.set(false);
+    ContextPathIndex<S> index = getIndex();
+    if (index == null) {
+      return;
+    }
+    PrecomputedResolutions<S> snapshot = new PrecomputedResolutions<>(index.getGeneration());
+    for (String path : hotContextPaths.getPaths()) {
+      snapshot.matches.put(path, getMatching(index, path));
+    }
+    precomputed = snapshot;
+    if (log.isTraceEnabled()) {
+      log.trace("Precomputed {} hot context paths for {}", snapshot.matches.size(), serviceClassName);
+    }
   }
 
   public String getServiceClassName() {
@@ -113,4 +236,18 @@ class ContextAwareServiceTracker<S extends ContextAwareService> implements Servi
     }
   }
 
+  /**
+   * Matching services for hot context paths, calculated for a given generation of the service snapshot.
+   */
+  private static final class PrecomputedResolutions<S extends ContextAwareService> {
+
+    private final long generation;
+    private final ConcurrentMap<String, List<ServiceInfo<S>>> matches = new ConcurrentHashMap<>();
+
+    PrecomputedResolutions(long generation) {
+      this.generation = generation;
+    }
+
+  }
+
 }
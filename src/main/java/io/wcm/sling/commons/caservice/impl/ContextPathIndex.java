@@ -0,0 +1,131 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.caservice.impl;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.wcm.sling.commons.caservice.ContextAwareService;
+
+/**
+ * Path-segment trie over the context path prefixes of a ranked list of context-aware services.
+ * Services declaring whitelist path prefixes are only considered as candidates if one of their prefixes lies
+ * on the path from the root to the given resource path, so resolving a path walks at most its depth.
+ * Services without path prefixes (e.g. only using regular expressions) are always considered as candidates.
+ * The ranking order of the services is preserved.
+ */
+final class ContextPathIndex<S extends ContextAwareService> {
+
+  private final long generation;
+  private final List<ServiceInfo<S>> services;
+  private final BitSet unindexed;
+  private final Node root;
+
+  /**
+   * @param generation Generation of the services snapshot this index was built for
+   * @param services Services ordered by service ranking
+   */
+  ContextPathIndex(long generation, @NotNull List<ServiceInfo<S>> services) {
+    this.generation = generation;
+    this.services = services;
+    this.unindexed = new BitSet(services.size());
+    this.root = new Node();
+    for (int i = 0; i < services.size(); i++) {
+      List<String> prefixes = services.get(i).getContextPathPrefixes();
+      if (prefixes == null || prefixes.isEmpty()) {
+        unindexed.set(i);
+      }
+      else {
+        for (String prefix : prefixes) {
+          root.getOrCreate(prefix).services.set(i);
+        }
+      }
+    }
+  }
+
+  long getGeneration() {
+    return this.generation;
+  }
+
+  /**
+   * Gets all services matching the given path, ordered by service ranking.
+   * @param resourcePath Resource path
+   * @return Matching services
+   */
+  @NotNull
+  Stream<ServiceInfo<S>> resolve(@Nullable String resourcePath) {
+    if (resourcePath == null) {
+      return services.stream()
+          .filter(serviceInfo -> serviceInfo.matches(null));
+    }
+    return getCandidates(resourcePath).stream()
+        .mapToObj(services::get)
+        .filter(serviceInfo -> serviceInfo.matches(resourcePath));
+  }
+
+  private @NotNull BitSet getCandidates(@NotNull String resourcePath) {
+    BitSet candidates = (BitSet)unindexed.clone();
+    if (!resourcePath.startsWith("/")) {
+      return candidates;
+    }
+    Node node = root;
+    candidates.or(node.services);
+    int start = 1;
+    while (start < resourcePath.length()) {
+      int end = resourcePath.indexOf('/', start);
+      if (end < 0) {
+        end = resourcePath.length();
+      }
+      if (end > start) {
+        node = node.children.get(resourcePath.substring(start, end));
+        if (node == null) {
+          break;
+        }
+        candidates.or(node.services);
+      }
+      start = end + 1;
+    }
+    return candidates;
+  }
+
+  private static final class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+    private final BitSet services = new BitSet();
+
+    Node getOrCreate(@NotNull String prefix) {
+      Node node = this;
+      for (String segment : prefix.split("/")) {
+        if (!segment.isEmpty()) {
+          node = node.children.computeIfAbsent(segment, key -> new Node());
+        }
+      }
+      return node;
+    }
+
+  }
+
+}
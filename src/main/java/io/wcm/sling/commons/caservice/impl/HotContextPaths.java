@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.caservice.impl;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Set of context paths for which the context-aware service resolution is precomputed in background.
+ * The set consists of a fixed list of configured paths, and optionally of paths learned from observed traffic.
+ * Paths are matched exactly, as the resolution for a path can not be reused for the paths below it in general.
+ * The instance is shared by the service trackers of all service interfaces.
+ */
+class HotContextPaths {
+
+  private final Set<String> configuredPaths;
+  private final Cache<String, Boolean> learnedPaths;
+  private final int maxSize;
+
+  /**
+   * @param configuredPaths Context paths that are always precomputed
+   * @param learnMaxSize Max. number of context paths learned from observed traffic. 0 disables learning.
+   */
+  HotContextPaths(@Nullable String @Nullable [] configuredPaths, int learnMaxSize) {
+    if (configuredPaths != null) {
+      this.configuredPaths = Arrays.stream(configuredPaths)
+          .filter(StringUtils::isNotBlank)
+          .collect(Collectors.toUnmodifiableSet());
+    }
+    else {
+      this.configuredPaths = Set.of();
+    }
+    if (learnMaxSize > 0) {
+      // size-based eviction of caffeine keeps the most frequently accessed paths
+      this.learnedPaths = Caffeine.newBuilder()
+          .maximumSize(learnMaxSize)
+          .build();
+      this.maxSize = this.configuredPaths.size() + learnMaxSize;
+    }
+    else {
+      this.learnedPaths = null;
+      this.maxSize = this.configuredPaths.size();
+    }
+  }
+
+  /**
+   * @return true if any hot context paths are configured or learning is enabled.
+   */
+  boolean isEnabled() {
+    return !configuredPaths.isEmpty() || learnedPaths != null;
+  }
+
+  /**
+   * Records an access to the given context path.
+   * @param path Context resource path, compared exactly with the hot context paths
+   * @return true if the path is a hot context path. Learned paths are considered hot from their second access.
+   */
+  boolean record(@Nullable String path) {
+    if (path == null) {
+      return false;
+    }
+    if (configuredPaths.contains(path)) {
+      return true;
+    }
+    if (learnedPaths == null) {
+      return false;
+    }
+    return learnedPaths.asMap().putIfAbsent(path, Boolean.TRUE) != null;
+  }
+
+  /**
+   * @return Max. number of hot context paths
+   */
+  int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * @return Snapshot of all hot context paths
+   */
+  @NotNull
+  Set<String> getPaths() {
+    if (learnedPaths == null) {
+      return configuredPaths;
+    }
+    Set<String> paths = new HashSet<>(configuredPaths);
+    paths.addAll(learnedPaths.asMap().keySet());
+    return paths;
+  }
+
+}
@@ -21,10 +21,15 @@ package io.wcm.sling.commons.caservice.impl;
 
 import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_ACCEPTS_CONTEXT_PATH_EMPTY;
 import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_BLACKLIST_PATTERN;
+import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_BLACKLIST_PREFIX;
 import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_PATTERN;
+import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_PREFIX;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -40,6 +45,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.wcm.sling.commons.caservice.ContextAwareService;
+import io.wcm.sling.commons.caservice.impl.BudgetedCharSequence.MatchBudgetExceededException;
 
 /**
  * Extracts metadata of a context-aware service implementation.
@@ -47,14 +53,18 @@ import io.wcm.sling.commons.caservice.ContextAwareService;
 class ServiceInfo<S extends ContextAwareService> {
 
   private static final Pattern PATTERN_MATCH_ALL = Pattern.compile(".*");
+  private static final String PATH_SEPARATOR = "/";
 
   private final @Nullable S service;
   private final Map<String, Object> servicePropertiesMap;
   private final Pattern contextPathRegex;
   private final Pattern contextPathBlacklistRegex;
+  private final List<String> contextPathPrefixes;
+  private final List<String> contextPathBlacklistPrefixes;
   private final boolean acceptsContextPathEmpty;
   private final String key;
   private final boolean valid;
+  private final AtomicBoolean matchBudgetExceededLogged = new AtomicBoolean();
 
   private static final Logger log = LoggerFactory.getLogger(ServiceInfo.class);
 
@@ -75,9 +85,12 @@ class ServiceInfo<S extends ContextAwareService> {
     this.servicePropertiesMap = propertiesToMap(serviceReference);
     this.contextPathRegex = validateAndParsePattern(serviceReference, service, PROPERTY_CONTEXT_PATH_PATTERN);
     this.contextPathBlacklistRegex = validateAndParsePattern(serviceReference, service, PROPERTY_CONTEXT_PATH_BLACKLIST_PATTERN);
+    this.contextPathPrefixes = validateAndParsePrefixes(serviceReference, service, PROPERTY_CONTEXT_PATH_PREFIX);
+    this.contextPathBlacklistPrefixes = validateAndParsePrefixes(serviceReference, service, PROPERTY_CONTEXT_PATH_BLACKLIST_PREFIX);
     this.acceptsContextPathEmpty = validateAndGetBoolan(lookupServicePropertyBundleHeader(serviceReference, PROPERTY_ACCEPTS_CONTEXT_PATH_EMPTY));
     this.key = buildKey();
-    this.valid = service != null && contextPathRegex != null && contextPathBlacklistRegex != null;
+    this.valid = service != null && contextPathRegex != null && contextPathBlacklistRegex != null
+        && contextPathPrefixes != null && contextPathBlacklistPrefixes != null;
   }
 
   @SuppressWarnings("unchecked")
@@ -135,6 +148,55 @@ class ServiceInfo<S extends ContextAwareService> {
     return null;
   }
 
+  private static <S extends ContextAwareService> List<String> validateAndParsePrefixes(
+      @NotNull ServiceReference<S> serviceReference, @Nullable S service, @NotNull String prefixPropertyName) {
+    Object value = lookupServicePropertyBundleHeader(serviceReference, prefixPropertyName);
+    String[] prefixStrings = null;
+    if (value == null) {
+      prefixStrings = new String[0];
+    }
+    else if (value instanceof String) {
+      prefixStrings = StringUtils.split((String)value, ',');
+    }
+    else if (value instanceof String[]) {
+      prefixStrings = (String[])value;
+    }
+    if (prefixStrings != null) {
+      List<String> prefixes = normalizePrefixes(prefixStrings);
+      if (prefixes != null) {
+        return prefixes;
+      }
+    }
+    if (log.isWarnEnabled()) {
+      log.warn("Invalid {} path prefix '{}' - service {} from bundle {} will be ignored for context-aware service resolution.",
+          prefixPropertyName, value, service != null ? service.getClass().getName() : "", serviceReference.getBundle().getSymbolicName());
+    }
+    return null;
+  }
+
+  /**
+   * Trims prefixes and removes trailing slashes.
+   * @param prefixStrings Prefix strings
+   * @return Normalized prefixes or null if a prefix is not an absolute path
+   */
+  private static @Nullable List<String> normalizePrefixes(@Nullable String @NotNull [] prefixStrings) {
+    List<String> prefixes = new ArrayList<>();
+    for (String prefixString : prefixStrings) {
+      String prefix = StringUtils.trim(prefixString);
+      if (StringUtils.isEmpty(prefix)) {
+        continue;
+      }
+      if (!StringUtils.startsWith(prefix, PATH_SEPARATOR)) {
+        return null;
+      }
+      if (prefix.length() > 1) {
+        prefix = StringUtils.removeEnd(prefix, PATH_SEPARATOR);
+      }
+      prefixes.add(prefix);
+    }
+    return List.copyOf(prefixes);
+  }
+
   private static boolean validateAndGetBoolan(Object value) {
     if (value instanceof Boolean) {
       return (Boolean)value;
@@ -161,6 +223,13 @@ class ServiceInfo<S extends ContextAwareService> {
     return this.servicePropertiesMap;
   }
 
+  /**
+   * @return Whitelist path prefixes. Empty if all paths are accepted.
+   */
+  public List<String> getContextPathPrefixes() {
+    return this.contextPathPrefixes;
+  }
+
   /**
    * @return Valid service
    */
@@ -170,6 +239,8 @@ class ServiceInfo<S extends ContextAwareService> {
 
   /**
    * Checks if this service implementation accepts the given resource path.
+   * If matching the regular expressions exceeds the match step budget, the implementation is treated as not
+   * matching for this path.
    * @param resourcePath Resource path
    * @return true if the implementation matches and the configuration is not invalid.
    */
@@ -180,18 +251,76 @@ class ServiceInfo<S extends ContextAwareService> {
     if (resourcePath == null) {
       return acceptsContextPathEmpty;
     }
-    if (contextPathRegex != PATTERN_MATCH_ALL && !contextPathRegex.matcher(resourcePath).matches()) {
+    if (!contextPathPrefixes.isEmpty() && !matchesAnyPrefix(resourcePath, contextPathPrefixes)) {
       return false;
     }
-    if (contextPathBlacklistRegex != PATTERN_MATCH_ALL && contextPathBlacklistRegex.matcher(resourcePath).matches()) {
+    if (matchesAnyPrefix(resourcePath, contextPathBlacklistPrefixes)) {
+      return false;
+    }
+    try {
+      if (contextPathRegex != PATTERN_MATCH_ALL && !BudgetedCharSequence.matches(contextPathRegex, resourcePath)) {
+        return false;
+      }
+      if (contextPathBlacklistRegex != PATTERN_MATCH_ALL && BudgetedCharSequence.matches(contextPathBlacklistRegex, resourcePath)) {
+        return false;
+      }
+    }
+    catch (MatchBudgetExceededException ex) {
+      logMatchBudgetExceeded(resourcePath);
       return false;
     }
     return true;
   }
 
+  private void logMatchBudgetExceeded(@NotNull String resourcePath) {
+    // log warning only once per service to avoid flooding the log
+    if (matchBudgetExceededLogged.compareAndSet(false, true)) {
+      if (log.isWarnEnabled()) {
+        log.warn("Matching regex patterns of service {} exceeded the match step budget for path '{}' - "
+            + "service is ignored for this path. Please check the patterns for excessive backtracking: {}",
+            service != null ? service.getClass().getName() : "", resourcePath, this);
+      }
+    }
+    else {
+      log.debug("Match step budget exceeded for service {} and path '{}'", this, resourcePath);
+    }
+  }
+
+  private static boolean matchesAnyPrefix(@NotNull String resourcePath, @NotNull List<String> prefixes) {
+    for (String prefix : prefixes) {
+      if (matchesPrefix(resourcePath, prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if the path equals the prefix or is a descendant of it.
+   * @param resourcePath Resource path
+   * @param prefix Normalized prefix
+   * @return true if prefix matches
+   */
+  static boolean matchesPrefix(@NotNull String resourcePath, @NotNull String prefix) {
+    if (!resourcePath.startsWith(prefix)) {
+      return false;
+    }
+    return resourcePath.length() == prefix.length()
+        || prefix.length() == 1
+        || resourcePath.charAt(prefix.length()) == '/';
+  }
+
   private String buildKey() {
-    return "[wl]" + contextPathRegex + "\n"
-        + "[bl]" + contextPathBlacklistRegex + "\n";
+    StringBuilder result = new StringBuilder()
+        .append("[wl]").append(contextPathRegex).append("\n")
+        .append("[bl]").append(contextPathBlacklistRegex).append("\n");
+    if (contextPathPrefixes != null && !contextPathPrefixes.isEmpty()) {
+      result.append("[wlp]").append(String.join(",", contextPathPrefixes)).append("\n");
+    }
+    if (contextPathBlacklistPrefixes != null && !contextPathBlacklistPrefixes.isEmpty()) {
+      result.append("[blp]").append(String.join(",", contextPathBlacklistPrefixes)).append("\n");
+    }
+    return result.toString();
   }
 
   /**
@@ -212,6 +341,12 @@ class ServiceInfo<S extends ContextAwareService> {
     if (contextPathBlacklistRegex != null) {
       builder.append("contextPathBlacklistRegex", contextPathBlacklistRegex);
     }
+    if (contextPathPrefixes != null && !contextPathPrefixes.isEmpty()) {
+      builder.append("contextPathPrefixes", contextPathPrefixes);
+    }
+    if (contextPathBlacklistPrefixes != null && !contextPathBlacklistPrefixes.isEmpty()) {
+      builder.append("contextPathBlacklistPrefixes", contextPathBlacklistPrefixes);
+    }
     if (acceptsContextPathEmpty) {
       builder.append("acceptsContextPathEmpty", acceptsContextPathEmpty);
     }
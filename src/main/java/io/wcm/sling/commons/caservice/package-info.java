@@ -20,5 +20,5 @@
 /**
  * Context-Aware services.
  */
-@org.osgi.annotation.versioning.Version("1.2.0")
+@org.osgi.annotation.versioning.Version("1.3.0")
 package io.wcm.sling.commons.caservice;
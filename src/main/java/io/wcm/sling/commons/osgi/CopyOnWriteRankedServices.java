@@ -0,0 +1,514 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.osgi;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.apache.sling.commons.osgi.Order;
+import org.apache.sling.commons.osgi.ServiceUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helper class that collects all services registered via OSGi bind/unbind methods.
+ * The services are ordered by service ranking (ascending, same as the deprecated {@link RankedServices})
+ * and can be iterated directly using this object instance.
+ * <p>
+ * The services are kept in a sorted immutable array that is replaced atomically on each change,
+ * so reading the services never blocks and {@link #get()} returns a snapshot without copying.
+ * The change listener is notified outside of any lock.
+ * </p>
+ * <p>
+ * Derived views filtering the services by their service properties can be created with {@link #createView(Predicate)}
+ * and {@link #createTopView(Predicate, int)}. They are recomputed only once after the services have changed.
+ * </p>
+ * <p>
+ * Optionally, change notifications can be debounced: they are delivered on an executor once no further
+ * change happened within a quiet period, passing the final list of services to the listener.
+ * </p>
+ * Implementation is thread-safe.
+ * @param <T> Service type
+ */
+@ProviderType
+public final class CopyOnWriteRankedServices<T> implements Iterable<T> {
+
+  private static final Comparator<Entry<?>> ENTRY_COMPARATOR = (e1, e2) -> e1.key.compareTo(e2.key);
+
+  private static final Logger log = LoggerFactory.getLogger(CopyOnWriteRankedServices.class);
+
+  private final ChangeListener changeListener;
+  private final AtomicReference<Snapshot<T>> snapshot = new AtomicReference<>(Snapshot.empty());
+
+  /**
+   * Instantiate without change listener.
+   */
+  public CopyOnWriteRankedServices() {
+    this(null);
+  }
+
+  /**
+   * Instantiate with change listener.
+   * @param changeListener Change listener
+   */
+  public CopyOnWriteRankedServices(@Nullable ChangeListener changeListener) {
+    this.changeListener = changeListener;
+  }
+
+  /**
+   * Instantiate with debounced change notifications.
+   * The listener is called on the given executor once no further bind/unbind happened within the quiet period,
+   * so a burst of changes e.g. during a bundle refresh results in a single notification.
+   * @param snapshotListener Listener that gets the final list of services after the changes
+   * @param executor Executor to schedule the notifications on
+   * @param quietPeriod Quiet period
+   * @param unit Time unit of quiet period
+   */
+  public CopyOnWriteRankedServices(@NotNull SnapshotListener<T> snapshotListener,
+      @NotNull ScheduledExecutorService executor, long quietPeriod, @NotNull TimeUnit unit) {
+    if (quietPeriod < 0) {
+      throw new IllegalArgumentException("Invalid quiet period: " + quietPeriod);
+    }
+    this.changeListener = new DebouncedNotifier(snapshotListener, executor, quietPeriod, unit);
+  }
+
+  /**
+   * Handle bind service event.
+   * @param service Service instance
+   * @param props Service reference properties
+   */
+  public void bind(@NotNull T service, @NotNull Map<String, Object> props) {
+    Entry<T> entry = new Entry<>(ServiceUtil.getComparableForServiceRanking(props, Order.ASCENDING), service, props);
+    Snapshot<T> current;
+    Snapshot<T> updated;
+    do {
+      current = snapshot.get();
+      updated = current.insert(entry);
+    }
+    while (!snapshot.compareAndSet(current, updated));
+    notifyChanged();
+  }
+
+  /**
+   * Handle bind service events for multiple services at once.
+   * The change listener is notified only once for the whole batch.
+   * @param services Map with service instances as keys and their service reference properties as values
+   */
+  public void bindAll(@NotNull Map<T, Map<String, Object>> services) {
+    if (services.isEmpty()) {
+      return;
+    }
+    Entry<T>[] entries = services.entrySet().stream()
+        .map(item -> new Entry<>(ServiceUtil.getComparableForServiceRanking(item.getValue(), Order.ASCENDING), item.getKey(), item.getValue()))
+        .sorted(ENTRY_COMPARATOR)
+        .toArray(CopyOnWriteRankedServices::newEntryArray);
+    Snapshot<T> current;
+    Snapshot<T> updated;
+    do {
+      current = snapshot.get();
+      updated = current.merge(entries);
+    }
+    while (!snapshot.compareAndSet(current, updated));
+    notifyChanged();
+  }
+
+  /**
+   * Handle unbind service event.
+   * @param service Service instance
+   * @param props Service reference properties
+   */
+  @SuppressWarnings("java:S1172")
+  public void unbind(@NotNull T service, @NotNull Map<String, Object> props) {
+    Comparable<Object> key = ServiceUtil.getComparableForServiceRanking(props, Order.ASCENDING);
+    Snapshot<T> current;
+    Snapshot<T> updated;
+    do {
+      current = snapshot.get();
+      updated = current.remove(key);
+      if (updated == current) {
+        return;
+      }
+    }
+    while (!snapshot.compareAndSet(current, updated));
+    notifyChanged();
+  }
+
+  private void notifyChanged() {
+    if (changeListener != null) {
+      changeListener.changed();
+    }
+  }
+
+  /**
+   * Lists all services registered in OSGi, sorted by service ranking.
+   * The returned list is an immutable snapshot supporting fast index-based access,
+   * it is not affected by subsequent bind/unbind events.
+   * @return List of service instances
+   */
+  public @NotNull List<T> get() {
+    return snapshot.get().services;
+  }
+
+  /**
+   * Iterates all services registered in OSGi, sorted by service ranking.
+   * @return Iterator with service instances.
+   */
+  @Override
+  public @NotNull Iterator<T> iterator() {
+    return get().iterator();
+  }
+
+  /**
+   * Applies the given action to all services registered in OSGi, sorted by service ranking.
+   * Does not allocate an iterator.
+   * @param action Action
+   */
+  @Override
+  public void forEach(@NotNull Consumer<? super T> action) {
+    List<T> services = get();
+    for (int i = 0; i < services.size(); i++) {
+      action.accept(services.get(i));
+    }
+  }
+
+  /**
+   * Creates a view on all services whose service properties match the given filter.
+   * @param filter Filter on service properties
+   * @return View with matching services, sorted by service ranking (same order as {@link #get()})
+   */
+  public @NotNull View<T> createView(@NotNull Predicate<Map<String, Object>> filter) {
+    return new View<>(this, filter, -1);
+  }
+
+  /**
+   * Creates a view on the highest-ranked services whose service properties match the given filter.
+   * @param filter Filter on service properties
+   * @param limit Max. number of services in view
+   * @return View with matching services, highest service ranking first
+   */
+  public @NotNull View<T> createTopView(@NotNull Predicate<Map<String, Object>> filter, int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("Invalid limit: " + limit);
+    }
+    return new View<>(this, filter, limit);
+  }
+
+  /**
+   * Derived view on the ranked services.
+   * The view is recomputed on first access after the services have changed, otherwise reading it is a
+   * constant-time operation.
+   * @param <T> Service type
+   */
+  @ProviderType
+  public static final class View<T> {
+
+    private final CopyOnWriteRankedServices<T> rankedServices;
+    private final Predicate<Map<String, Object>> filter;
+    private final int limit;
+    private volatile Result<T> result;
+
+    View(CopyOnWriteRankedServices<T> rankedServices, Predicate<Map<String, Object>> filter, int limit) {
+      this.rankedServices = rankedServices;
+      this.filter = filter;
+      this.limit = limit;
+    }
+
+    /**
+     * @return Immutable list of matching services
+     */
+    public @NotNull List<T> get() {
+      Snapshot<T> snapshot = rankedServices.snapshot.get();
+      Result<T> current = this.result;
+      if (current == null || current.source != snapshot) {
+        current = new Result<>(snapshot, compute(snapshot));
+        this.result = current;
+      }
+      return current.services;
+    }
+
+    /**
+     * Gets the matching service with the highest service ranking. This is the last service of {@link #get()}
+     * for views created with {@link CopyOnWriteRankedServices#createView(Predicate)}, and the first service
+     * for views created with {@link CopyOnWriteRankedServices#createTopView(Predicate, int)}.
+     * @return Highest-ranked matching service or null if none matches
+     */
+    public @Nullable T getHighestRanked() {
+      List<T> services = get();
+      if (services.isEmpty()) {
+        return null;
+      }
+      return limit < 0 ? services.get(services.size() - 1) : services.get(0);
+    }
+
+    private List<T> compute(Snapshot<T> snapshot) {
+      List<T> services = new ArrayList<>();
+      Entry<T>[] entries = snapshot.entries;
+      if (limit < 0) {
+        for (Entry<T> entry : entries) {
+          if (filter.test(entry.props)) {
+            services.add(entry.service);
+          }
+        }
+      }
+      else {
+        for (int i = entries.length - 1; i >= 0 && services.size() < limit; i--) {
+          if (filter.test(entries[i].props)) {
+            services.add(entries[i].service);
+          }
+        }
+      }
+      return List.copyOf(services);
+    }
+
+    private static final class Result<T> {
+
+      private final Snapshot<T> source;
+      private final List<T> services;
+
+      Result(Snapshot<T> source, List<T> services) {
+        this.source = source;
+        this.services = services;
+      }
+
+    }
+
+  }
+
+  /**
+   * Notification for changes on services list.
+   */
+  @FunctionalInterface
+  public interface ChangeListener {
+
+    /**
+     * Is called after the list of ranked services was changed due to bundle bindings/unbindings.
+     * This method is called outside of any lock, it may be called concurrently for concurrent changes.
+     * Use {@link CopyOnWriteRankedServices#get()} to get the current services.
+     */
+    void changed();
+
+  }
+
+  /**
+   * Debounced notification about changes on services list.
+   * @param <T> Service type
+   */
+  @FunctionalInterface
+  public interface SnapshotListener<T> {
+
+    /**
+     * Is called once after a burst of changes of the list of ranked services.
+     * @param services Immutable list of services after the changes, sorted by service ranking
+     */
+    void changed(@NotNull List<T> services);
+
+  }
+
+  /**
+   * Re-schedules the notification on each change, so only the last scheduled notification is delivered.
+   */
+  private final class DebouncedNotifier implements ChangeListener {
+
+    private final SnapshotListener<T> snapshotListener;
+    private final ScheduledExecutorService executor;
+    private final long quietPeriod;
+    private final TimeUnit unit;
+    private final AtomicReference<ScheduledFuture<?>> pending = new AtomicReference<>();
+    private final AtomicReference<List<T>> lastDelivered = new AtomicReference<>();
+
+    DebouncedNotifier(SnapshotListener<T> snapshotListener, ScheduledExecutorService executor,
+        long quietPeriod, TimeUnit unit) {
+      this.snapshotListener = snapshotListener;
+      this.executor = executor;
+      this.quietPeriod = quietPeriod;
+      this.unit = unit;
+    }
+
+    @Override
+    public void changed() {
+      ScheduledFuture<?> scheduled;
+      try {
+        scheduled = executor.schedule(this::deliver, quietPeriod, unit);
+      }
+      catch (RejectedExecutionException ex) {
+        // executor is shut down e.g. while the component is deactivated - drop notification
+        log.debug("Unable to schedule change notification: {}", ex.getMessage());
+        return;
+      }
+      ScheduledFuture<?> previous = pending.getAndSet(scheduled);
+      if (previous != null) {
+        previous.cancel(false);
+      }
+    }
+
+    private void deliver() {
+      List<T> services = get();
+      // skip if a notification that was not cancelled in time already delivered the same snapshot
+      if (lastDelivered.getAndSet(services) != services) {
+        snapshotListener.changed(services);
+      }
+    }
+
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Entry<T>[] newEntryArray(int length) {
+    return (Entry<T>[])new Entry<?>[length];
+  }
+
+  private static final class Entry<T> {
+
+    private final Comparable<Object> key;
+    private final T service;
+    private final Map<String, Object> props;
+
+    Entry(Comparable<Object> key, T service, Map<String, Object> props) {
+      this.key = key;
+      this.service = service;
+      this.props = props;
+    }
+
+  }
+
+  /**
+   * Immutable sorted array of entries with a list view on the service instances.
+   */
+  private static final class Snapshot<T> {
+
+    private static final Snapshot<?> EMPTY = new Snapshot<>(newEntryArray(0));
+
+    private final Entry<T>[] entries;
+    private final List<T> services;
+
+    Snapshot(Entry<T>[] entries) {
+      this.entries = entries;
+      this.services = new ServiceList<>(entries);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Snapshot<T> empty() {
+      return (Snapshot<T>)EMPTY;
+    }
+
+    Snapshot<T> insert(Entry<T> entry) {
+      int index = Arrays.binarySearch(entries, entry, ENTRY_COMPARATOR);
+      if (index >= 0) {
+        // replace service with same ranking and service id
+        Entry<T>[] updated = entries.clone();
+        updated[index] = entry;
+        return new Snapshot<>(updated);
+      }
+      int insertIndex = -index - 1;
+      Entry<T>[] updated = Arrays.copyOf(entries, entries.length + 1);
+      System.arraycopy(entries, insertIndex, updated, insertIndex + 1, entries.length - insertIndex);
+      updated[insertIndex] = entry;
+      return new Snapshot<>(updated);
+    }
+
+    Snapshot<T> merge(Entry<T>[] sortedEntries) {
+      Entry<T>[] updated = Arrays.copyOf(entries, entries.length + sortedEntries.length);
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < entries.length || j < sortedEntries.length) {
+        int compare;
+        if (i == entries.length) {
+          compare = 1;
+        }
+        else if (j == sortedEntries.length) {
+          compare = -1;
+        }
+        else {
+          compare = ENTRY_COMPARATOR.compare(entries[i], sortedEntries[j]);
+        }
+        Entry<T> next;
+        if (compare < 0) {
+          next = entries[i++];
+        }
+        else {
+          if (compare == 0) {
+            // replace service with same ranking and service id
+            i++;
+          }
+          next = sortedEntries[j++];
+        }
+        if (k > 0 && ENTRY_COMPARATOR.compare(updated[k - 1], next) == 0) {
+          updated[k - 1] = next;
+        }
+        else {
+          updated[k++] = next;
+        }
+      }
+      return new Snapshot<>(k == updated.length ? updated : Arrays.copyOf(updated, k));
+    }
+
+    Snapshot<T> remove(Comparable<Object> key) {
+      int index = Arrays.binarySearch(entries, new Entry<T>(key, null, null), ENTRY_COMPARATOR);
+      if (index < 0) {
+        return this;
+      }
+      Entry<T>[] updated = newEntryArray(entries.length - 1);
+      System.arraycopy(entries, 0, updated, 0, index);
+      System.arraycopy(entries, index + 1, updated, index, entries.length - index - 1);
+      return new Snapshot<>(updated);
+    }
+
+  }
+
+  /**
+   * Immutable list view on the service instances of a sorted entry array.
+   */
+  private static final class ServiceList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final Entry<T>[] entries;
+
+    ServiceList(Entry<T>[] entries) {
+      this.entries = entries;
+    }
+
+    @Override
+    public T get(int index) {
+      return entries[index].service;
+    }
+
+    @Override
+    public int size() {
+      return entries.length;
+    }
+
+  }
+
+}
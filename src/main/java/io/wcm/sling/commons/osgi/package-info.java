@@ -20,5 +20,5 @@
 /**
  * Helper classes for OSGi and SCR.
  */
-@org.osgi.annotation.versioning.Version("1.0.0")
+@org.osgi.annotation.versioning.Version("1.1.0")
 package io.wcm.sling.commons.osgi;
@@ -0,0 +1,75 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Canonical query string built by {@link QueryStringBuilder#buildCanonicalWithHash()} together with a 64-bit hash.
+ * The hash is stable across JVMs and can be used as in-memory cache key.
+ */
+@ProviderType
+public final class CanonicalQueryString {
+
+  static final CanonicalQueryString EMPTY = new CanonicalQueryString(null, FnvHash.finish(FnvHash.SEED));
+
+  private final String queryString;
+  private final long hash;
+
+  CanonicalQueryString(@Nullable String queryString, long hash) {
+    this.queryString = queryString;
+    this.hash = hash;
+  }
+
+  /**
+   * @return Canonical query string or null if query string contains no parameters at all.
+   */
+  public @Nullable String getQueryString() {
+    return this.queryString;
+  }
+
+  /**
+   * @return 64-bit hash of the canonical query string
+   */
+  public long getHash() {
+    return this.hash;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(hash);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof CanonicalQueryString)) {
+      return false;
+    }
+    CanonicalQueryString other = (CanonicalQueryString)obj;
+    return hash == other.hash && (queryString == null ? other.queryString == null : queryString.equals(other.queryString));
+  }
+
+  @Override
+  public String toString() {
+    return queryString != null ? queryString : "";
+  }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import java.util.Calendar;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jackrabbit.JcrConstants;
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+import io.wcm.sling.commons.caservice.ContextAwareServiceResolver.ResolveAllResult;
+
+/**
+ * Derives an ETag from the combined keys of the context-aware services a servlet depends on,
+ * the last modification time of resources and other keys, and answers conditional GET requests
+ * with 304 Not Modified before rendering.
+ *
+ * <pre>
+ * ConditionalGet conditionalGet = ConditionalGet.create()
+ *     .add(serviceResolver.resolveAll(MyService.class, resource))
+ *     .addLastModified(resource);
+ * if (conditionalGet.handle(request, response)) {
+ *   return;
+ * }
+ * // render response
+ * </pre>
+ *
+ * <p>
+ * The ETag is only valid as long as the response depends exclusively on the added inputs.
+ * </p>
+ */
+@ProviderType
+public final class ConditionalGet {
+
+  private static final String HEADER_ETAG = "ETag";
+  private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+  private static final String WEAK_PREFIX = "W/";
+
+  private long hash = FnvHash.SEED;
+
+  private ConditionalGet() {
+    // use create()
+  }
+
+  /**
+   * @return New instance
+   */
+  public static @NotNull ConditionalGet create() {
+    return new ConditionalGet();
+  }
+
+  /**
+   * Adds the combined key of the services resolved for the current resource.
+   * @param result Resolve all result
+   * @return this
+   */
+  public @NotNull ConditionalGet add(@NotNull ResolveAllResult<?> result) {
+    return add(result.getCombinedKey());
+  }
+
+  /**
+   * Adds a key the response depends on, e.g. a version or configuration key.
+   * @param key Key
+   * @return this
+   */
+  public @NotNull ConditionalGet add(@Nullable String key) {
+    // separator avoids ambiguities between adjacent keys
+    hash = FnvHash.hash(hash, '|');
+    if (key != null) {
+      hash = FnvHash.hash(hash, key);
+    }
+    return this;
+  }
+
+  /**
+   * Adds a timestamp the response depends on.
+   * @param timestamp Timestamp
+   * @return this
+   */
+  public @NotNull ConditionalGet addLastModified(long timestamp) {
+    return add(Long.toString(timestamp));
+  }
+
+  /**
+   * Adds the last modification time of the resource. It is taken from the resource metadata, or from the
+   * jcr:lastModified property of the resource or its jcr:content child.
+   * @param resource Resource
+   * @return this
+   */
+  public @NotNull ConditionalGet addLastModified(@Nullable Resource resource) {
+    return addLastModified(getLastModified(resource));
+  }
+
+  static long getLastModified(@Nullable Resource resource) {
+    if (resource == null) {
+      return 0;
+    }
+    long modificationTime = resource.getResourceMetadata().getModificationTime();
+    if (modificationTime > 0) {
+      return modificationTime;
+    }
+    long lastModified = getLastModifiedProperty(resource);
+    if (lastModified == 0) {
+      lastModified = getLastModifiedProperty(resource.getChild(JcrConstants.JCR_CONTENT));
+    }
+    return lastModified;
+  }
+
+  private static long getLastModifiedProperty(@Nullable Resource resource) {
+    if (resource == null) {
+      return 0;
+    }
+    Calendar lastModified = resource.getValueMap().get(JcrConstants.JCR_LASTMODIFIED, Calendar.class);
+    if (lastModified == null) {
+      return 0;
+    }
+    return lastModified.getTimeInMillis();
+  }
+
+  /**
+   * @return Weak ETag value including quotes
+   */
+  public @NotNull String getETag() {
+    String value = Long.toHexString(FnvHash.finish(hash));
+    return WEAK_PREFIX + "\"" + StringUtils.leftPad(value, 16, '0') + "\"";
+  }
+
+  /**
+   * Sets the ETag header, and sends a 304 Not Modified response if it matches the If-None-Match header
+   * of a GET or HEAD request.
+   * @param request Request
+   * @param response Response
+   * @return true if a 304 response was sent and rendering must be skipped
+   */
+  public boolean handle(@NotNull SlingHttpServletRequest request, @NotNull HttpServletResponse response) {
+    String etag = getETag();
+    response.setHeader(HEADER_ETAG, etag);
+    String method = request.getMethod();
+    if (!(StringUtils.equals(method, "GET") || StringUtils.equals(method, "HEAD"))) {
+      return false;
+    }
+    if (matches(request.getHeader(HEADER_IF_NONE_MATCH), etag)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Checks the If-None-Match header using weak comparison.
+   * @param ifNoneMatch Header value
+   * @param etag ETag
+   * @return true if any of the listed entity tags matches
+   */
+  static boolean matches(@Nullable String ifNoneMatch, @NotNull String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    String opaqueTag = stripWeakPrefix(etag);
+    for (String item : StringUtils.split(ifNoneMatch, ',')) {
+      String tag = item.trim();
+      if (tag.equals("*") || stripWeakPrefix(tag).equals(opaqueTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String stripWeakPrefix(@NotNull String tag) {
+    return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+  }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.ServletRequest;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per-request cache of request parameters decoded from ISO-8859-1 to UTF-8, stored as request attribute.
+ * The form encoding parameter is checked only once, and each parameter value is decoded at most once per request.
+ */
+final class DecodedParameters {
+
+  static final String REQUEST_ATTRIBUTE_NAME = DecodedParameters.class.getName();
+
+  private static final Value ABSENT = new Value(null, false);
+  private static final String[] ABSENT_VALUES = new String[0];
+
+  private static final int MAX_BUFFER_SIZE = 1024;
+  private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[64]);
+
+  private final ServletRequest request;
+  private final String characterEncoding;
+  private final boolean decode;
+  private final Map<String, Value> values = new ConcurrentHashMap<>();
+  private final Map<String, String[]> multipleValues = new ConcurrentHashMap<>();
+
+  private DecodedParameters(@NotNull ServletRequest request) {
+    this.request = request;
+    this.characterEncoding = request.getCharacterEncoding();
+    this.decode = StringUtils.isEmpty(request.getParameter(RequestParam.PARAMETER_FORMENCODING));
+  }
+
+  /**
+   * Gets the decoded parameters for the given request, creating and storing them on first access.
+   * The cache is stored as request attribute, so it is shared with wrapped requests e.g. in an include.
+   * It is rebuilt if the character encoding of the request changes, as the servlet engine decodes the
+   * parameters again in this case.
+   * @param request Request
+   * @return Decoded parameters
+   */
+  static @NotNull DecodedParameters get(@NotNull ServletRequest request) {
+    Object attribute = request.getAttribute(REQUEST_ATTRIBUTE_NAME);
+    if (attribute instanceof DecodedParameters) {
+      DecodedParameters parameters = (DecodedParameters)attribute;
+      if (Objects.equals(parameters.characterEncoding, request.getCharacterEncoding())) {
+        return parameters;
+      }
+    }
+    DecodedParameters parameters = new DecodedParameters(request);
+    request.setAttribute(REQUEST_ATTRIBUTE_NAME, parameters);
+    return parameters;
+  }
+
+  /**
+   * @return true if parameter values have to be converted from ISO-8859-1 to UTF-8,
+   *         because no form encoding parameter is set
+   */
+  boolean isConversionRequired() {
+    return decode;
+  }
+
+  /**
+   * @param param Parameter name
+   * @return Parameter value as returned by the servlet engine, or null if not set
+   */
+  @Nullable
+  String getRaw(@NotNull String param) {
+    return getValue(param).raw;
+  }
+
+  /**
+   * @param param Parameter name
+   * @return Parameter value converted to UTF-8 if no form encoding parameter is set, or null if not set
+   */
+  @Nullable
+  String getDecoded(@NotNull String param) {
+    return getValue(param).getDecoded();
+  }
+
+  /**
+   * @param param Parameter name
+   * @return Parameter values converted to UTF-8 if no form encoding parameter is set, or null if not set.
+   *         The array is shared and must not be modified. It is the array returned by the servlet engine
+   *         if no value had to be converted.
+   */
+  String @Nullable [] getDecodedMultiple(@NotNull String param) {
+    String[] result = multipleValues.computeIfAbsent(param, key -> {
+      String[] rawValues = request.getParameterValues(key);
+      if (rawValues == null) {
+        return ABSENT_VALUES;
+      }
+      if (!decode) {
+        return rawValues;
+      }
+      // copy array only if at least one value is changed by the conversion
+      String[] convertedValues = rawValues;
+      for (int i = 0; i < rawValues.length; i++) {
+        if (rawValues[i] != null) {
+          String convertedValue = convertISO88591toUTF8(rawValues[i]);
+          if (convertedValue != rawValues[i]) {
+            if (convertedValues == rawValues) {
+              convertedValues = rawValues.clone();
+            }
+            convertedValues[i] = convertedValue;
+          }
+        }
+      }
+      return convertedValues;
+    });
+    return result == ABSENT_VALUES ? null : result;
+  }
+
+  private @NotNull Value getValue(@NotNull String param) {
+    return values.computeIfAbsent(param, key -> {
+      String raw = request.getParameter(key);
+      return raw != null ? new Value(raw, decode) : ABSENT;
+    });
+  }
+
+  /**
+   * Converts a string from ISO-8559-1 encoding to UTF-8.
+   * Pure ASCII values are returned unchanged without copying. Other values are decoded directly from the chars
+   * representing the UTF-8 bytes, falling back to the JDK decoder for malformed sequences.
+   * @param value ISO-8559-1 value
+   * @return UTF-8 value
+   */
+  static String convertISO88591toUTF8(String value) {
+    int length = value.length();
+    int start = 0;
+    while (start < length && value.charAt(start) < 0x80) {
+      start++;
+    }
+    if (start == length) {
+      return value;
+    }
+    char[] buffer = getBuffer(length);
+    value.getChars(0, start, buffer, 0);
+    int count = decodeUTF8(value, start, buffer, start);
+    if (count < 0) {
+      return new String(value.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+    }
+    return new String(buffer, 0, count);
+  }
+
+  /**
+   * Decodes UTF-8 bytes represented as chars. The decoded value is never longer than the input.
+   * @return Number of chars in output buffer, or -1 if the input is not well-formed
+   */
+  @SuppressWarnings("java:S3776") // complexity
+  private static int decodeUTF8(String value, int start, char[] buffer, int offset) {
+    int length = value.length();
+    int pos = offset;
+    int i = start;
+    while (i < length) {
+      int b1 = value.charAt(i++);
+      if (b1 < 0x80) {
+        buffer[pos++] = (char)b1;
+      }
+      else if (b1 >= 0xC2 && b1 <= 0xDF) {
+        int b2 = nextByte(value, i++, 0x80, 0xBF);
+        if (b2 < 0) {
+          return -1;
+        }
+        buffer[pos++] = (char)(((b1 & 0x1F) << 6) | (b2 & 0x3F));
+      }
+      else if (b1 >= 0xE0 && b1 <= 0xEF) {
+        int b2 = nextByte(value, i++, b1 == 0xE0 ? 0xA0 : 0x80, b1 == 0xED ? 0x9F : 0xBF);
+        int b3 = nextByte(value, i++, 0x80, 0xBF);
+        if (b2 < 0 || b3 < 0) {
+          return -1;
+        }
+        buffer[pos++] = (char)(((b1 & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F));
+      }
+      else if (b1 >= 0xF0 && b1 <= 0xF4) {
+        int b2 = nextByte(value, i++, b1 == 0xF0 ? 0x90 : 0x80, b1 == 0xF4 ? 0x8F : 0xBF);
+        int b3 = nextByte(value, i++, 0x80, 0xBF);
+        int b4 = nextByte(value, i++, 0x80, 0xBF);
+        if (b2 < 0 || b3 < 0 || b4 < 0) {
+          return -1;
+        }
+        int codePoint = ((b1 & 0x07) << 18) | ((b2 & 0x3F) << 12) | ((b3 & 0x3F) << 6) | (b4 & 0x3F);
+        buffer[pos++] = Character.highSurrogate(codePoint);
+        buffer[pos++] = Character.lowSurrogate(codePoint);
+      }
+      else {
+        return -1;
+      }
+    }
+    return pos;
+  }
+
+  private static int nextByte(String value, int index, int min, int max) {
+    if (index >= value.length()) {
+      return -1;
+    }
+    int b = value.charAt(index);
+    return (b >= min && b <= max) ? b : -1;
+  }
+
+  private static char[] getBuffer(int length) {
+    if (length > MAX_BUFFER_SIZE) {
+      return new char[length];
+    }
+    char[] buffer = BUFFER.get();
+    if (buffer.length < length) {
+      buffer = new char[MAX_BUFFER_SIZE];
+      BUFFER.set(buffer);
+    }
+    return buffer;
+  }
+
+  private static final class Value {
+
+    private final String raw;
+    private final boolean decode;
+    private volatile String decoded;
+
+    Value(String raw, boolean decode) {
+      this.raw = raw;
+      this.decode = decode;
+    }
+
+    String getDecoded() {
+      if (raw == null || !decode) {
+        return raw;
+      }
+      String result = decoded;
+      if (result == null) {
+        result = convertISO88591toUTF8(raw);
+        decoded = result;
+      }
+      return result;
+    }
+
+  }
+
+}
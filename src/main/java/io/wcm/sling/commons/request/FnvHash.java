@@ -0,0 +1,79 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 64-bit FNV-1a hash over chars with a final avalanche step, used for hashes that have to be stable across JVMs.
+ */
+final class FnvHash {
+
+  /**
+   * Initial hash value.
+   */
+  static final long SEED = 0xcbf29ce484222325L;
+
+  private static final long PRIME = 0x100000001b3L;
+
+  private FnvHash() {
+    // static methods only
+  }
+
+  /**
+   * FNV-1a hash step for a single char.
+   * @param hash Current hash value
+   * @param c Char
+   * @return Updated hash value
+   */
+  static long hash(long hash, char c) {
+    return (hash ^ c) * PRIME;
+  }
+
+  /**
+   * FNV-1a hash step for all chars of the given string.
+   * @param hash Current hash value
+   * @param value String
+   * @return Updated hash value
+   */
+  static long hash(long hash, @NotNull String value) {
+    long result = hash;
+    for (int i = 0; i < value.length(); i++) {
+      result = (result ^ value.charAt(i)) * PRIME;
+    }
+    return result;
+  }
+
+  /**
+   * Final avalanche step to spread the FNV-1a hash bits (from MurmurHash3 fmix64).
+   * @param hash Current hash value
+   * @return Final hash value
+   */
+  static long finish(long hash) {
+    long result = hash;
+    result ^= result >>> 33;
+    result *= 0xff51afd7ed558ccdL;
+    result ^= result >>> 33;
+    result *= 0xc4ceb93e45339ec5L;
+    result ^= result >>> 33;
+    return result;
+  }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Parses parameter values to numbers and enums without using exceptions for invalid values.
+ * Accepts the same input as {@link Integer#parseInt(String)}, {@link Long#parseLong(String)},
+ * {@link Float#parseFloat(String)}, {@link Double#parseDouble(String)} and {@link Enum#valueOf(Class, String)}.
+ */
+final class ParameterParser {
+
+  private static final ClassValue<Map<String, Enum<?>>> ENUM_CONSTANTS = new ClassValue<>() {
+    @Override
+    protected Map<String, Enum<?>> computeValue(Class<?> type) {
+      Map<String, Enum<?>> constants = new HashMap<>();
+      Object[] values = type.getEnumConstants();
+      if (values != null) {
+        for (Object value : values) {
+          Enum<?> constant = (Enum<?>)value;
+          constants.put(constant.name(), constant);
+        }
+      }
+      return constants;
+    }
+  };
+
+  private ParameterParser() {
+    // static methods only
+  }
+
+  static int toInt(@Nullable String value, int defaultValue) {
+    if (isInteger(value, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+      return Integer.parseInt(value);
+    }
+    return defaultValue;
+  }
+
+  static long toLong(@Nullable String value, long defaultValue) {
+    if (isInteger(value, Long.MIN_VALUE, Long.MAX_VALUE)) {
+      return Long.parseLong(value);
+    }
+    return defaultValue;
+  }
+
+  static float toFloat(@Nullable String value, float defaultValue) {
+    if (isDecimal(value)) {
+      return Float.parseFloat(value);
+    }
+    if (isHexFloatingPoint(value)) {
+      try {
+        return Float.parseFloat(value);
+      }
+      catch (NumberFormatException ex) {
+        // ignore, return default
+      }
+    }
+    return defaultValue;
+  }
+
+  static double toDouble(@Nullable String value, double defaultValue) {
+    if (isDecimal(value)) {
+      return Double.parseDouble(value);
+    }
+    if (isHexFloatingPoint(value)) {
+      try {
+        return Double.parseDouble(value);
+      }
+      catch (NumberFormatException ex) {
+        // ignore, return default
+      }
+    }
+    return defaultValue;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T extends Enum> @Nullable T toEnum(@Nullable String value, @NotNull Class<T> enumClass, @Nullable T defaultValue) {
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+    T result = (T)ENUM_CONSTANTS.get(enumClass).get(value);
+    return result != null ? result : defaultValue;
+  }
+
+  /**
+   * Checks for an optionally signed decimal integer within the given range.
+   * Uses the same negative accumulation as {@link Long#parseLong(String)} to detect overflows.
+   */
+  static boolean isInteger(@Nullable String value, long min, long max) {
+    if (value == null || value.isEmpty()) {
+      return false;
+    }
+    int length = value.length();
+    int index = 0;
+    long limit = -max;
+    char first = value.charAt(0);
+    if (first == '-' || first == '+') {
+      if (first == '-') {
+        limit = min;
+      }
+      if (length == 1) {
+        return false;
+      }
+      index++;
+    }
+    long multmin = limit / 10;
+    long result = 0;
+    while (index < length) {
+      int digit = Character.digit(value.charAt(index++), 10);
+      if (digit < 0 || result < multmin) {
+        return false;
+      }
+      result *= 10;
+      if (result < limit + digit) {
+        return false;
+      }
+      result -= digit;
+    }
+    return true;
+  }
+
+  /**
+   * Checks for decimal floating point values accepted by {@link Double#parseDouble(String)},
+   * including "NaN", "Infinity" and the optional type suffix.
+   */
+  @SuppressWarnings("java:S3776") // complexity
+  static boolean isDecimal(@Nullable String value) {
+    if (value == null) {
+      return false;
+    }
+    int start = 0;
+    int end = value.length();
+    // leading and trailing whitespace is ignored, see String.trim
+    while (start < end && value.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && value.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    int index = start;
+    if (index < end && (value.charAt(index) == '-' || value.charAt(index) == '+')) {
+      index++;
+    }
+    if (value.startsWith("NaN", index) || value.startsWith("Infinity", index)) {
+      return index + (value.charAt(index) == 'N' ? 3 : 8) == end;
+    }
+    int digits = 0;
+    while (index < end && isAsciiDigit(value.charAt(index))) {
+      index++;
+      digits++;
+    }
+    if (index < end && value.charAt(index) == '.') {
+      index++;
+      while (index < end && isAsciiDigit(value.charAt(index))) {
+        index++;
+        digits++;
+      }
+    }
+    if (digits == 0) {
+      return false;
+    }
+    if (index < end && (value.charAt(index) == 'e' || value.charAt(index) == 'E')) {
+      index++;
+      if (index < end && (value.charAt(index) == '-' || value.charAt(index) == '+')) {
+        index++;
+      }
+      int exponentDigits = 0;
+      while (index < end && isAsciiDigit(value.charAt(index))) {
+        index++;
+        exponentDigits++;
+      }
+      if (exponentDigits == 0) {
+        return false;
+      }
+    }
+    if (index < end && "fFdD".indexOf(value.charAt(index)) >= 0) {
+      index++;
+    }
+    return index == end;
+  }
+
+  /**
+   * Checks for a hexadecimal floating point prefix, which is rarely used and validated by the JDK parser.
+   */
+  private static boolean isHexFloatingPoint(@Nullable String value) {
+    if (value == null) {
+      return false;
+    }
+    String trimmed = value.trim();
+    int index = 0;
+    if (!trimmed.isEmpty() && (trimmed.charAt(0) == '-' || trimmed.charAt(0) == '+')) {
+      index++;
+    }
+    return trimmed.startsWith("0x", index) || trimmed.startsWith("0X", index);
+  }
+
+  private static boolean isAsciiDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+}
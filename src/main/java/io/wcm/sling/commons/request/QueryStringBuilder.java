@@ -19,8 +19,11 @@
  */
 package io.wcm.sling.commons.request;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
@@ -36,10 +39,15 @@ import io.wcm.sling.commons.util.Escape;
 @ProviderType
 public final class QueryStringBuilder {
 
-  private static final String PARAM_SEPARATOR = "&";
-  private static final String VALUE_SEPARATOR = "=";
+  private static final char PARAM_SEPARATOR = '&';
+  private static final char VALUE_SEPARATOR = '=';
 
-  private final List<NameValuePair> params = new ArrayList<>();
+  private static final Comparator<String[]> CANONICAL_ORDER = Comparator.<String[], String>comparing(pair -> pair[0])
+      .thenComparing(pair -> pair[1]);
+
+  // parameter names and values at the same index. values are either strings, boxed primitives or primitive arrays
+  private final List<String> names = new ArrayList<>();
+  private final List<Object> values = new ArrayList<>();
 
   /**
    * Add parameter to query string.
@@ -53,22 +61,44 @@ public final class QueryStringBuilder {
     if (value instanceof Iterable) {
       Iterable<Object> valueItems = (Iterable)value;
       for (Object valueItem : valueItems) {
-        params.add(new NameValuePair(name, valueItem));
+        add(name, valueItem);
       }
     }
-    else if (isArray(value)) {
-      int length = Array.getLength(value);
-      for (int i = 0; i < length; i++) {
-        Object valueItem = Array.get(value, i);
-        params.add(new NameValuePair(name, valueItem));
+    else if (value instanceof Object[]) {
+      for (Object valueItem : (Object[])value) {
+        add(name, valueItem);
       }
     }
+    else if (isArray(value)) {
+      // primitive arrays are expanded on build without boxing the items
+      names.add(name);
+      values.add(cloneArray(value));
+    }
     else {
-      params.add(new NameValuePair(name, value));
+      add(name, value);
     }
     return this;
   }
 
+  /**
+   * Adds a single value. Values other than strings and boxed primitives are converted to string immediately,
+   * so later changes of mutable values do not affect the query string.
+   */
+  private void add(@NotNull String name, @Nullable Object value) {
+    names.add(name);
+    if (value == null || value instanceof String || isBoxedPrimitive(value)) {
+      values.add(value);
+    }
+    else {
+      values.add(value.toString());
+    }
+  }
+
+  private static boolean isBoxedPrimitive(@NotNull Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+        || value instanceof Double || value instanceof Float || value instanceof Boolean || value instanceof Character;
+  }
+
   /**
    * Add map of parameters to query string.
    * @param values Map with parameter names and values. Values will be converted to strings.
@@ -87,17 +117,11 @@ public final class QueryStringBuilder {
    * @return Query string or null if query string contains no parameters at all.
    */
   public @Nullable String build() {
-    StringBuilder queryString = new StringBuilder();
-
-    for (NameValuePair param : params) {
-      if (queryString.length() > 0) {
-        queryString.append(PARAM_SEPARATOR);
-      }
-      queryString.append(Escape.urlEncode(param.getName()));
-      queryString.append(VALUE_SEPARATOR);
-      queryString.append(Escape.urlEncode(param.getValue()));
+    if (names.isEmpty()) {
+      return null;
     }
-
+    StringBuilder queryString = new StringBuilder(estimateLength());
+    appendTo(queryString);
     if (queryString.length() > 0) {
       return queryString.toString();
     }
@@ -106,33 +130,205 @@ public final class QueryStringBuilder {
     }
   }
 
-  private static boolean isArray(Object value) {
-    return value != null && value.getClass().isArray();
+  /**
+   * Appends the URL-encoded query string to the given target.
+   * Nothing is appended if query string contains no parameters at all.
+   * @param target Target
+   * @throws IOException if appending to the target fails
+   */
+  public void appendTo(@NotNull Appendable target) throws IOException {
+    boolean first = true;
+    for (int i = 0; i < names.size(); i++) {
+      String name = names.get(i);
+      Object value = values.get(i);
+      if (isArray(value)) {
+        int length = Array.getLength(value);
+        for (int index = 0; index < length; index++) {
+          appendParamName(target, name, first);
+          appendArrayItem(target, value, index);
+          first = false;
+        }
+      }
+      else {
+        appendParamName(target, name, first);
+        appendValue(target, value);
+        first = false;
+      }
+    }
   }
 
-  private static class NameValuePair {
-
-    private final String name;
-    private final String value;
+  /**
+   * Build canonical query string: The parameters are sorted by their URL-encoded name and value, and exact duplicates
+   * are removed. So the same set of parameters results in the same query string regardless of the insertion order.
+   * @return Query string or null if query string contains no parameters at all.
+   */
+  public @Nullable String buildCanonical() {
+    return buildCanonicalWithHash().getQueryString();
+  }
 
-    NameValuePair(String name, Object value) {
-      this.name = name;
-      if (value != null) {
-        this.value = value.toString();
+  /**
+   * Build canonical query string (see {@link #buildCanonical()}) together with a 64-bit hash of it,
+   * which is computed while building the query string.
+   * @return Canonical query string with hash
+   */
+  public @NotNull CanonicalQueryString buildCanonicalWithHash() {
+    List<String[]> pairs = getEncodedPairs();
+    pairs.sort(CANONICAL_ORDER);
+    StringBuilder queryString = new StringBuilder(estimateLength());
+    long hash = FnvHash.SEED;
+    String[] previous = null;
+    for (String[] pair : pairs) {
+      if (previous != null && CANONICAL_ORDER.compare(previous, pair) == 0) {
+        continue;
       }
-      else {
-        this.value = "";
+      if (previous != null) {
+        queryString.append(PARAM_SEPARATOR);
+        hash = FnvHash.hash(hash, PARAM_SEPARATOR);
+      }
+      queryString.append(pair[0]).append(VALUE_SEPARATOR).append(pair[1]);
+      hash = FnvHash.hash(hash, pair[0]);
+      hash = FnvHash.hash(hash, VALUE_SEPARATOR);
+      hash = FnvHash.hash(hash, pair[1]);
+      previous = pair;
+    }
+    if (queryString.length() > 0) {
+      return new CanonicalQueryString(queryString.toString(), FnvHash.finish(hash));
+    }
+    return CanonicalQueryString.EMPTY;
+  }
+
+  /**
+   * @return List of URL-encoded name/value pairs
+   */
+  private List<String[]> getEncodedPairs() {
+    List<String[]> pairs = new ArrayList<>(names.size());
+    StringBuilder buffer = new StringBuilder();
+    try {
+      for (int i = 0; i < names.size(); i++) {
+        String encodedName = Escape.urlEncode(names.get(i));
+        Object value = values.get(i);
+        if (isArray(value)) {
+          int length = Array.getLength(value);
+          for (int index = 0; index < length; index++) {
+            buffer.setLength(0);
+            appendArrayItem(buffer, value, index);
+            pairs.add(new String[] { encodedName, buffer.toString() });
+          }
+        }
+        else {
+          buffer.setLength(0);
+          appendValue(buffer, value);
+          pairs.add(new String[] { encodedName, buffer.toString() });
+        }
       }
     }
+    catch (IOException ex) {
+      // never thrown by StringBuilder
+      throw new UncheckedIOException(ex);
+    }
+    return pairs;
+  }
+
+  void appendTo(@NotNull StringBuilder target) {
+    try {
+      appendTo((Appendable)target);
+    }
+    catch (IOException ex) {
+      // never thrown by StringBuilder
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static void appendParamName(@NotNull Appendable target, @NotNull String name, boolean first)
+      throws IOException {
+    if (!first) {
+      target.append(PARAM_SEPARATOR);
+    }
+    Escape.urlEncode(name, target);
+    target.append(VALUE_SEPARATOR);
+  }
+
+  /**
+   * Appends a single value. Numbers and booleans consist only of chars that need no URL-encoding.
+   */
+  static void appendValue(@NotNull Appendable target, @Nullable Object value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    if (value instanceof CharSequence) {
+      Escape.urlEncode((CharSequence)value, target);
+    }
+    else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      appendLong(target, ((Number)value).longValue());
+    }
+    else if (value instanceof Boolean) {
+      target.append(((Boolean)value).booleanValue() ? "true" : "false");
+    }
+    else {
+      Escape.urlEncode(value.toString(), target);
+    }
+  }
+
+  /**
+   * Appends an item of a primitive array. Numbers and booleans consist only of chars that need no URL-encoding.
+   */
+  @SuppressWarnings("java:S3776") // complexity
+  static void appendArrayItem(@NotNull Appendable target, @NotNull Object array, int index) throws IOException {
+    if (array instanceof int[]) {
+      appendLong(target, ((int[])array)[index]);
+    }
+    else if (array instanceof long[]) {
+      appendLong(target, ((long[])array)[index]);
+    }
+    else if (array instanceof boolean[]) {
+      target.append(((boolean[])array)[index] ? "true" : "false");
+    }
+    else if (array instanceof double[]) {
+      target.append(Double.toString(((double[])array)[index]));
+    }
+    else if (array instanceof float[]) {
+      target.append(Float.toString(((float[])array)[index]));
+    }
+    else if (array instanceof short[]) {
+      appendLong(target, ((short[])array)[index]);
+    }
+    else if (array instanceof byte[]) {
+      appendLong(target, ((byte[])array)[index]);
+    }
+    else if (array instanceof char[]) {
+      Escape.urlEncode(String.valueOf(((char[])array)[index]), target);
+    }
+  }
 
-    public String getName() {
-      return this.name;
+  private static void appendLong(@NotNull Appendable target, long value) throws IOException {
+    if (target instanceof StringBuilder) {
+      ((StringBuilder)target).append(value);
+    }
+    else {
+      target.append(Long.toString(value));
     }
+  }
 
-    public String getValue() {
-      return this.value;
+  int estimateLength() {
+    int length = 0;
+    for (int i = 0; i < names.size(); i++) {
+      Object value = values.get(i);
+      int count = isArray(value) ? Array.getLength(value) : 1;
+      int valueLength = value instanceof CharSequence ? ((CharSequence)value).length() : 8;
+      length += count * (names.get(i).length() + valueLength + 2);
     }
+    return length;
+  }
+
+  static boolean isArray(Object value) {
+    return value != null && value.getClass().isArray();
+  }
 
+  private static Object cloneArray(Object array) {
+    int length = Array.getLength(array);
+    Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+    System.arraycopy(array, 0, copy, 0, length);
+    return copy;
   }
 
 }
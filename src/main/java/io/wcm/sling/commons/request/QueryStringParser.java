@@ -0,0 +1,338 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Parses URL-encoded query strings, as counterpart of {@link QueryStringBuilder}.
+ * <p>
+ * Parsing only tokenizes the query string into offsets of the parameter names and values in the original
+ * char sequence. Names and values are decoded lazily when they are read. Malformed percent-encoded sequences
+ * are kept as they are.
+ * </p>
+ * Instances are immutable if the given char sequence is immutable (e.g. a String).
+ */
+@ProviderType
+public final class QueryStringParser {
+
+  private static final String[] EMPTY_VALUES = new String[0];
+
+  private final CharSequence queryString;
+  // for each parameter: name start, name end, value start, value end (value start = -1 if no value separator)
+  private final int[] offsets;
+  private final int size;
+
+  private QueryStringParser(@NotNull CharSequence queryString) {
+    this.queryString = queryString;
+    int length = queryString.length();
+    int start = (length > 0 && queryString.charAt(0) == '?') ? 1 : 0;
+    int[] result = new int[16];
+    int count = 0;
+    while (start < length) {
+      int end = indexOf(queryString, '&', start, length);
+      if (end > start) {
+        int separator = indexOf(queryString, '=', start, end);
+        if (count * 4 + 4 > result.length) {
+          result = Arrays.copyOf(result, result.length * 2);
+        }
+        int base = count * 4;
+        result[base] = start;
+        result[base + 1] = separator;
+        result[base + 2] = separator < end ? separator + 1 : -1;
+        result[base + 3] = end;
+        count++;
+      }
+      start = end + 1;
+    }
+    this.offsets = result;
+    this.size = count;
+  }
+
+  /**
+   * Parses a query string.
+   * @param queryString Query string, with or without leading "?". Null is treated as empty query string.
+   * @return Parsed query string
+   */
+  public static @NotNull QueryStringParser parse(@Nullable CharSequence queryString) {
+    return new QueryStringParser(queryString != null ? queryString : "");
+  }
+
+  /**
+   * @return Number of parameters (including repeated parameter names)
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param index Parameter index
+   * @return Decoded parameter name
+   */
+  public @NotNull String getName(int index) {
+    checkIndex(index);
+    return decode(offsets[index * 4], offsets[index * 4 + 1], StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @param index Parameter index
+   * @return Decoded parameter value, empty string if the parameter has no value
+   */
+  public @NotNull String getValue(int index) {
+    checkIndex(index);
+    return getValue(index, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @param name Parameter name
+   * @return Decoded value of first parameter with the given name, or null if not set
+   */
+  public @Nullable String get(@NotNull String name) {
+    int index = indexOf(name, 0, StandardCharsets.UTF_8);
+    return index >= 0 ? getValue(index, StandardCharsets.UTF_8) : null;
+  }
+
+  /**
+   * @param name Parameter name
+   * @return Decoded values of all parameters with the given name, or null if not set
+   */
+  public String @Nullable [] getValues(@NotNull String name) {
+    return getValues(name, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns an unmodifiable map view on the parameters, compatible with the parameter map of a servlet request.
+   * Like a servlet engine, the names and values are decoded with the charset given in the form encoding parameter
+   * {@link RequestParam#PARAMETER_FORMENCODING}, or ISO-8859-1 if no such parameter is set. So the map can be
+   * consumed with {@link RequestParam#get(Map, String)} which converts the values to UTF-8 if required.
+   * If the form encoding parameter contains an unsupported charset, UTF-8 is used, as
+   * {@link RequestParam#get(Map, String)} does not convert the values when the parameter is present.
+   * @return Parameter map view. Lookups of single parameters only decode the values of this parameter.
+   */
+  public @NotNull Map<String, String[]> asParameterMap() {
+    return new ParameterMap(getFormEncoding());
+  }
+
+  private @NotNull Charset getFormEncoding() {
+    int index = indexOf(RequestParam.PARAMETER_FORMENCODING, 0, StandardCharsets.UTF_8);
+    if (index < 0) {
+      return StandardCharsets.ISO_8859_1;
+    }
+    String charsetName = getValue(index, StandardCharsets.UTF_8);
+    try {
+      if (Charset.isSupported(charsetName)) {
+        return Charset.forName(charsetName);
+      }
+    }
+    catch (IllegalArgumentException ex) {
+      // ignore invalid charset name
+    }
+    return StandardCharsets.UTF_8;
+  }
+
+  private String @Nullable [] getValues(@NotNull String name, @NotNull Charset charset) {
+    int index = indexOf(name, 0, charset);
+    if (index < 0) {
+      return null;
+    }
+    List<String> values = new ArrayList<>();
+    while (index >= 0) {
+      values.add(getValue(index, charset));
+      index = indexOf(name, index + 1, charset);
+    }
+    return values.toArray(EMPTY_VALUES);
+  }
+
+  private @NotNull String getValue(int index, @NotNull Charset charset) {
+    int valueStart = offsets[index * 4 + 2];
+    if (valueStart < 0) {
+      return "";
+    }
+    return decode(valueStart, offsets[index * 4 + 3], charset);
+  }
+
+  /**
+   * @return Index of first parameter with the given name decoded with the given charset, starting from the given
+   *         index, or -1
+   */
+  private int indexOf(@NotNull String name, int fromIndex, @NotNull Charset charset) {
+    for (int index = fromIndex; index < size; index++) {
+      if (nameEquals(index, name, charset)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  private boolean nameEquals(int index, @NotNull String name, @NotNull Charset charset) {
+    int start = offsets[index * 4];
+    int end = offsets[index * 4 + 1];
+    if (!requiresDecoding(start, end)) {
+      // compare without decoding
+      if (end - start != name.length()) {
+        return false;
+      }
+      for (int i = start; i < end; i++) {
+        if (queryString.charAt(i) != name.charAt(i - start)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return decode(start, end, charset).equals(name);
+  }
+
+  private boolean requiresDecoding(int start, int end) {
+    for (int i = start; i < end; i++) {
+      char c = queryString.charAt(i);
+      if (c == '%' || c == '+') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Decodes the given range like {@link java.net.URLDecoder}, but keeps malformed percent-encoded sequences.
+   */
+  private @NotNull String decode(int start, int end, @NotNull Charset charset) {
+    if (!requiresDecoding(start, end)) {
+      return queryString.subSequence(start, end).toString();
+    }
+    StringBuilder result = new StringBuilder(end - start);
+    byte[] bytes = null;
+    int i = start;
+    while (i < end) {
+      char c = queryString.charAt(i);
+      if (c == '+') {
+        result.append(' ');
+        i++;
+      }
+      else if (c == '%' && isPercentEncoded(i, end)) {
+        // collect sequence of percent-encoded bytes
+        if (bytes == null) {
+          bytes = new byte[(end - i) / 3];
+        }
+        int count = 0;
+        while (i < end && queryString.charAt(i) == '%' && isPercentEncoded(i, end)) {
+          bytes[count++] = (byte)((Character.digit(queryString.charAt(i + 1), 16) << 4)
+              + Character.digit(queryString.charAt(i + 2), 16));
+          i += 3;
+        }
+        result.append(new String(bytes, 0, count, charset));
+      }
+      else {
+        result.append(c);
+        i++;
+      }
+    }
+    return result.toString();
+  }
+
+  private boolean isPercentEncoded(int index, int end) {
+    return index + 2 < end
+        && Character.digit(queryString.charAt(index + 1), 16) >= 0
+        && Character.digit(queryString.charAt(index + 2), 16) >= 0;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    }
+  }
+
+  private static int indexOf(@NotNull CharSequence value, char c, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (value.charAt(i) == c) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  @Override
+  public String toString() {
+    return queryString.toString();
+  }
+
+  /**
+   * Map view on the parameters. Single parameter lookups are answered from the offsets,
+   * the full map is only built when iterating.
+   */
+  private final class ParameterMap extends AbstractMap<String, String[]> {
+
+    private final Charset charset;
+    private volatile Map<String, String[]> map;
+
+    ParameterMap(Charset charset) {
+      this.charset = charset;
+    }
+
+    @Override
+    public String[] get(Object key) {
+      if (!(key instanceof String)) {
+        return null;
+      }
+      return getValues((String)key, charset);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof String && indexOf((String)key, 0, charset) >= 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    @Override
+    public Set<Entry<String, String[]>> entrySet() {
+      Map<String, String[]> result = map;
+      if (result == null) {
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        for (int index = 0; index < size; index++) {
+          String name = decode(offsets[index * 4], offsets[index * 4 + 1], charset);
+          values.computeIfAbsent(name, key -> new ArrayList<>()).add(getValue(index, charset));
+        }
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        values.forEach((key, list) -> parameters.put(key, list.toArray(EMPTY_VALUES)));
+        result = Collections.unmodifiableMap(parameters);
+        map = result;
+      }
+      return result.entrySet();
+    }
+
+  }
+
+}
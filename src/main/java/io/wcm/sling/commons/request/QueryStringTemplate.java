@@ -0,0 +1,176 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+import io.wcm.sling.commons.util.Escape;
+
+/**
+ * Query string template with a fixed list of parameter names.
+ * The URL-encoded parameter names and separators are precomputed once, building a query string only encodes
+ * the parameter values. Values are converted in the same way as by {@link QueryStringBuilder}.
+ * <p>
+ * Instances are immutable and thread-safe, so they can be shared as constants:
+ * </p>
+ *
+ * <pre>
+ * private static final QueryStringTemplate PAGING = QueryStringTemplate.of("page", "size", "sort");
+ * ...
+ * String queryString = PAGING.build(page, size, sort);
+ * </pre>
+ */
+@ProviderType
+public final class QueryStringTemplate {
+
+  private static final int ESTIMATED_VALUE_LENGTH = 8;
+
+  // "&" + URL-encoded name + "=" for each parameter
+  private final String[] segments;
+  private final int estimatedLength;
+
+  private QueryStringTemplate(@NotNull String @NotNull... names) {
+    this.segments = new String[names.length];
+    int length = 0;
+    for (int i = 0; i < names.length; i++) {
+      segments[i] = "&" + Escape.urlEncode(names[i]) + "=";
+      length += segments[i].length() + ESTIMATED_VALUE_LENGTH;
+    }
+    this.estimatedLength = length;
+  }
+
+  /**
+   * Creates a query string template.
+   * @param names Parameter names
+   * @return Query string template
+   */
+  public static @NotNull QueryStringTemplate of(@NotNull String @NotNull... names) {
+    return new QueryStringTemplate(names);
+  }
+
+  /**
+   * Build query string.
+   * @param values Parameter values, one for each parameter name in the same order.
+   *          Values will be converted to string. If value is an array or {@link Iterable} the value items will be
+   *          added as separate parameters.
+   * @return Query string or null if query string contains no parameters at all.
+   * @throws IllegalArgumentException if the number of values does not match the number of parameter names
+   */
+  public @Nullable String build(@Nullable Object @NotNull... values) {
+    StringBuilder queryString = new StringBuilder(estimateLength(values));
+    appendTo(queryString, values);
+    if (queryString.length() > 0) {
+      return queryString.toString();
+    }
+    else {
+      return null;
+    }
+  }
+
+  /**
+   * Appends the URL-encoded query string to the given target.
+   * Nothing is appended if query string contains no parameters at all.
+   * @param target Target
+   * @param values Parameter values, one for each parameter name in the same order.
+   * @throws IOException if appending to the target fails
+   * @throws IllegalArgumentException if the number of values does not match the number of parameter names
+   */
+  public void appendTo(@NotNull Appendable target, @Nullable Object @NotNull... values) throws IOException {
+    if (target instanceof StringBuilder) {
+      appendTo((StringBuilder)target, values);
+    }
+    else {
+      StringBuilder queryString = new StringBuilder(estimateLength(values));
+      appendTo(queryString, values);
+      target.append(queryString);
+    }
+  }
+
+  private void appendTo(@NotNull StringBuilder target, @Nullable Object @NotNull [] values) {
+    try {
+      appendValues(target, values);
+    }
+    catch (IOException ex) {
+      // never thrown by StringBuilder
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private void appendValues(@NotNull StringBuilder target, @Nullable Object @NotNull [] values) throws IOException {
+    if (values.length != segments.length) {
+      throw new IllegalArgumentException("Expected " + segments.length + " values, got " + values.length);
+    }
+    int start = target.length();
+    for (int i = 0; i < segments.length; i++) {
+      String segment = segments[i];
+      Object value = values[i];
+      if (value instanceof Iterable) {
+        for (Object valueItem : (Iterable<?>)value) {
+          appendSegment(target, segment, start);
+          QueryStringBuilder.appendValue(target, valueItem);
+        }
+      }
+      else if (value instanceof Object[]) {
+        for (Object valueItem : (Object[])value) {
+          appendSegment(target, segment, start);
+          QueryStringBuilder.appendValue(target, valueItem);
+        }
+      }
+      else if (QueryStringBuilder.isArray(value)) {
+        int length = Array.getLength(value);
+        for (int index = 0; index < length; index++) {
+          appendSegment(target, segment, start);
+          QueryStringBuilder.appendArrayItem(target, value, index);
+        }
+      }
+      else {
+        appendSegment(target, segment, start);
+        QueryStringBuilder.appendValue(target, value);
+      }
+    }
+  }
+
+  private static void appendSegment(@NotNull StringBuilder target, @NotNull String segment, int start) {
+    // skip parameter separator for first parameter
+    if (target.length() == start) {
+      target.append(segment, 1, segment.length());
+    }
+    else {
+      target.append(segment);
+    }
+  }
+
+  private int estimateLength(@Nullable Object @NotNull [] values) {
+    int length = estimatedLength;
+    for (Object value : values) {
+      if (value instanceof CharSequence) {
+        length += ((CharSequence)value).length();
+      }
+    }
+    return length;
+  }
+
+}
@@ -19,7 +19,12 @@
  */
 package io.wcm.sling.commons.request;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
 import org.apache.sling.api.SlingHttpServletRequest;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.osgi.annotation.versioning.ProviderType;
 
@@ -37,4 +42,50 @@ public interface RequestContext {
   @Nullable
   SlingHttpServletRequest getThreadRequest();
 
+  /**
+   * Gets a value memoized for the outermost request associated with the current thread, or computes and stores it.
+   * The memo store is discarded when processing of the outermost request ends. It is not thread-safe,
+   * tasks wrapped via the wrap methods get their own memo store.
+   * Null values are not stored. If no request is associated with the current thread, the value is computed on each call.
+   * @param <T> Value type
+   * @param key Memo key
+   * @param supplier Computes the value if not present. It may access other memoized values.
+   * @return Memoized or computed value
+   */
+  <T> T computeIfAbsent(@NotNull RequestMemoKey<T> key, @NotNull Supplier<T> supplier);
+
+  /**
+   * Wraps the given task to run with the request context of the current thread.
+   * The request context is captured when this method is called, installed on the thread executing the task
+   * while it runs, and the previous context of that thread is restored afterwards.
+   * Wrapped tasks should complete before processing of the request ends. Tasks started after the request
+   * has completed run without request context.
+   * @param task Task
+   * @return Wrapped task, or the given task if no request is associated with the current thread.
+   */
+  @NotNull
+  Runnable wrap(@NotNull Runnable task);
+
+  /**
+   * Wraps the given task to run with the request context of the current thread.
+   * The request context is captured when this method is called, installed on the thread executing the task
+   * while it runs, and the previous context of that thread is restored afterwards.
+   * Wrapped tasks should complete before processing of the request ends. Tasks started after the request
+   * has completed run without request context.
+   * @param <V> Result type
+   * @param task Task
+   * @return Wrapped task, or the given task if no request is associated with the current thread.
+   */
+  @NotNull
+  <V> Callable<V> wrap(@NotNull Callable<V> task);
+
+  /**
+   * Decorates the given executor so that each submitted task runs with the request context of the thread
+   * submitting it. Tasks started after the request has completed run without request context.
+   * @param executor Executor
+   * @return Decorated executor
+   */
+  @NotNull
+  Executor wrap(@NotNull Executor executor);
+
 }
@@ -0,0 +1,53 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import org.jetbrains.annotations.NotNull;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Typed key for values memoized per request via {@link RequestContext#computeIfAbsent(RequestMemoKey, java.util.function.Supplier)}.
+ * Keys are compared by identity, usually they are declared as constants.
+ * @param <T> Value type
+ */
+@ProviderType
+public final class RequestMemoKey<T> {
+
+  private final String name;
+
+  private RequestMemoKey(@NotNull String name) {
+    this.name = name;
+  }
+
+  /**
+   * @param <T> Value type
+   * @param name Key name, only used for diagnostic purposes
+   * @return New key
+   */
+  public static <T> @NotNull RequestMemoKey<T> create(@NotNull String name) {
+    return new RequestMemoKey<>(name);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+}
@@ -19,14 +19,11 @@
  */
 package io.wcm.sling.commons.request;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import javax.servlet.ServletRequest;
 
 import org.apache.commons.lang3.BooleanUtils;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.osgi.annotation.versioning.ProviderType;
@@ -36,6 +33,7 @@ import org.osgi.annotation.versioning.ProviderType;
  * This class automatically converts string parameters from ISO-8859-1 to UTF-8, because UTF-8 form data
  * is expected by default. This is only done if no request parameter "_charset_" with an explicit encoding is set.
  * If it is set, the {@link org.apache.sling.api.SlingHttpServletRequest} automatically converts the parameter data.
+ * The converted parameter values are cached in a request attribute, so each value is converted only once per request.
  */
 @ProviderType
 public final class RequestParam {
@@ -73,12 +71,8 @@ public final class RequestParam {
    * @return Parameter value or the default value if it is not set.
    */
   public static @Nullable String get(@NotNull ServletRequest request, @NotNull String param, @Nullable String defaultValue) {
-    String value = request.getParameter(param);
+    String value = DecodedParameters.get(request).getDecoded(param);
     if (value != null) {
-      // convert encoding to UTF-8 if not form encoding parameter is set
-      if (!hasFormEncodingParam(request)) {
-        value = convertISO88591toUTF8(value);
-      }
       return value;
     }
     else {
@@ -89,29 +83,14 @@ public final class RequestParam {
   /**
    * Returns a request parameter array.<br>
    * The method fixes problems with incorrect UTF-8 characters returned by the servlet engine.
-   * All character data is converted from ISO-8859-1 to UTF-8.
+   * All character data is converted from ISO-8859-1 to UTF-8, once per request. A new array is returned on each call.
    * @param request Request.
    * @param param Parameter name.
    * @return Parameter value array value or null if it is not set.
    */
   public static String @Nullable [] getMultiple(@NotNull ServletRequest request, @NotNull String param) {
-    String[] values = request.getParameterValues(param);
-    if (values == null) {
-      return null;
-    }
-    // convert encoding to UTF-8 if not form encoding parameter is set
-    if (!hasFormEncodingParam(request)) {
-      String[] convertedValues = new String[values.length];
-      for (int i = 0; i < values.length; i++) {
-        if (values[i] != null) {
-          convertedValues[i] = convertISO88591toUTF8(values[i]);
-        }
-      }
-      return convertedValues;
-    }
-    else {
-      return values;
-    }
+    String[] values = DecodedParameters.get(request).getDecodedMultiple(param);
+    return values != null ? values.clone() : null;
   }
 
   /**
@@ -130,7 +109,7 @@ public final class RequestParam {
     }
     // convert encoding to UTF-8 if not form encoding parameter is set
     if (value != null && !hasFormEncodingParam(requestMap)) {
-      value = convertISO88591toUTF8(value);
+      value = DecodedParameters.convertISO88591toUTF8(value);
     }
     return value;
   }
@@ -153,8 +132,8 @@ public final class RequestParam {
    * @return Parameter value or default value if it does not exist or is not a number.
    */
   public static int getInt(@NotNull ServletRequest request, @NotNull String param, int defaultValue) {
-    String value = request.getParameter(param);
-    return NumberUtils.toInt(value, defaultValue);
+    String value = DecodedParameters.get(request).getRaw(param);
+    return ParameterParser.toInt(value, defaultValue);
   }
 
   /**
@@ -175,8 +154,8 @@ public final class RequestParam {
    * @return Parameter value or default value if it does not exist or is not a number.
    */
   public static long getLong(@NotNull ServletRequest request, @NotNull String param, long defaultValue) {
-    String value = request.getParameter(param);
-    return NumberUtils.toLong(value, defaultValue);
+    String value = DecodedParameters.get(request).getRaw(param);
+    return ParameterParser.toLong(value, defaultValue);
   }
 
   /**
@@ -197,8 +176,8 @@ public final class RequestParam {
    * @return Parameter value or default value if it does not exist or is not a number.
    */
   public static float getFloat(@NotNull ServletRequest request, @NotNull String param, float defaultValue) {
-    String value = request.getParameter(param);
-    return NumberUtils.toFloat(value, defaultValue);
+    String value = DecodedParameters.get(request).getRaw(param);
+    return ParameterParser.toFloat(value, defaultValue);
   }
 
   /**
@@ -219,8 +198,8 @@ public final class RequestParam {
    * @return Parameter value or default value if it does not exist or is not a number.
    */
   public static double getDouble(@NotNull ServletRequest request, @NotNull String param, double defaultValue) {
-    String value = request.getParameter(param);
-    return NumberUtils.toDouble(value, defaultValue);
+    String value = DecodedParameters.get(request).getRaw(param);
+    return ParameterParser.toDouble(value, defaultValue);
   }
 
   /**
@@ -242,7 +221,7 @@ public final class RequestParam {
    *         boolean.
    */
   public static boolean getBoolean(@NotNull ServletRequest request, @NotNull String param, boolean defaultValue) {
-    String value = request.getParameter(param);
+    String value = DecodedParameters.get(request).getRaw(param);
     Boolean boolValue = BooleanUtils.toBooleanObject(value);
     if (boolValue != null) {
       return boolValue.booleanValue();
@@ -271,27 +250,10 @@ public final class RequestParam {
    * @param defaultValue Default value.
    * @return Parameter value or the default value if it is not set or an invalid enum value.
    */
-  @SuppressWarnings("unchecked")
   public static <T extends Enum> @Nullable T getEnum(@NotNull ServletRequest request, @NotNull String param, @NotNull Class<T> enumClass,
       @Nullable T defaultValue) {
     String value = RequestParam.get(request, param);
-    if (StringUtils.isNotEmpty(value)) {
-      try {
-        return (T)Enum.valueOf(enumClass, value);
-      }
-      catch (IllegalArgumentException ex) {
-        // ignore, return default
-      }
-    }
-    return defaultValue;
-  }
-
-  /**
-   * @param request Servlet request
-   * @return Checks if form encoding parameter is set
-   */
-  private static boolean hasFormEncodingParam(@NotNull ServletRequest request) {
-    return StringUtils.isNotEmpty(request.getParameter(PARAMETER_FORMENCODING));
+    return ParameterParser.toEnum(value, enumClass, defaultValue);
   }
 
   /**
@@ -303,13 +265,4 @@ public final class RequestParam {
     return valueArray != null && valueArray.length > 0;
   }
 
-  /**
-   * Converts a string from ISO-8559-1 encoding to UTF-8.
-   * @param value ISO-8559-1 value
-   * @return UTF-8 value
-   */
-  private static String convertISO88591toUTF8(String value) {
-    return new String(value.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
-  }
-
 }
@@ -0,0 +1,391 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletRequest;
+
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.ClassUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Binds request parameters to the properties of a data object in one pass over the request's parameter map.
+ * <p>
+ * The target type is introspected once and the binder is cached per type. Supported targets are:
+ * </p>
+ * <ul>
+ * <li>Public classes with a public no-arg constructor: Parameters are bound to public setter methods and public
+ * non-final fields. Properties without parameter or with an invalid value keep their initial value, so field
+ * initializers can be used to define typed default values.</li>
+ * <li>Public records (on Java 16 and above): Parameters are bound to the record components via the canonical
+ * constructor. Components without parameter or with an invalid value get the same default values as the
+ * {@link RequestParam} getters (null, 0 or false).</li>
+ * </ul>
+ * <p>
+ * Supported property types are String, String[], int, long, float, double, boolean (including their wrapper types)
+ * and enums. Properties of other types are ignored. The parameter name is the property name.
+ * If a setter is overloaded, the String variant is used if present.
+ * String values are converted from ISO-8859-1 to UTF-8 in the same way as by {@link RequestParam}.
+ * </p>
+ * @param <T> Target type
+ */
+@ProviderType
+public final class RequestParamBinder<T> {
+
+  private static final ClassValue<RequestParamBinder<?>> BINDERS = new ClassValue<>() {
+    @Override
+    protected RequestParamBinder<?> computeValue(Class<?> type) {
+      return new RequestParamBinder<>(type);
+    }
+  };
+
+  private static final Object INVALID = new Object();
+
+  private final Class<T> type;
+  private final Map<String, Property> properties = new HashMap<>();
+  private final MethodHandle constructor;
+  private final boolean record;
+  private Object[] recordDefaultValues;
+
+  private RequestParamBinder(@NotNull Class<T> type) {
+    this.type = type;
+    if (!Modifier.isPublic(type.getModifiers())) {
+      throw new IllegalArgumentException("Type is not public: " + type.getName());
+    }
+    try {
+      this.record = RecordSupport.isRecord(type);
+      if (record) {
+        this.constructor = initRecord();
+      }
+      else {
+        this.constructor = initBean();
+      }
+    }
+    catch (ReflectiveOperationException ex) {
+      throw new IllegalArgumentException("Unable to bind request parameters to " + type.getName(), ex);
+    }
+  }
+
+  private MethodHandle initBean() throws ReflectiveOperationException {
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    Constructor<T> ctor = type.getConstructor();
+    for (Field field : type.getFields()) {
+      int modifiers = field.getModifiers();
+      Converter converter = getConverter(field.getType());
+      if (converter != null && !Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+        properties.put(field.getName(), new Property(converter, toGenericSetter(lookup.unreflectSetter(field)), -1));
+      }
+    }
+    // setters take precedence over fields, for overloaded setters the one with the lowest type rank is used
+    Map<String, Integer> setterTypeRanks = new HashMap<>();
+    for (Method method : type.getMethods()) {
+      String name = method.getName();
+      if (name.length() > 3 && name.startsWith("set") && method.getParameterCount() == 1
+          && !Modifier.isStatic(method.getModifiers())) {
+        Class<?> parameterType = method.getParameterTypes()[0];
+        Converter converter = getConverter(parameterType);
+        if (converter != null) {
+          String propertyName = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+          int typeRank = getTypeRank(parameterType);
+          Integer existingTypeRank = setterTypeRanks.get(propertyName);
+          if (existingTypeRank == null || typeRank < existingTypeRank) {
+            setterTypeRanks.put(propertyName, typeRank);
+            properties.put(propertyName, new Property(converter, toGenericSetter(lookup.unreflect(method)), -1));
+          }
+        }
+      }
+    }
+    return lookup.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+  }
+
+  private MethodHandle initRecord() throws ReflectiveOperationException {
+    Object[] components = RecordSupport.getComponents(type);
+    String[] names = new String[components.length];
+    Class<?>[] types = new Class<?>[components.length];
+    recordDefaultValues = new Object[components.length];
+    for (int i = 0; i < components.length; i++) {
+      names[i] = RecordSupport.getName(components[i]);
+      types[i] = RecordSupport.getType(components[i]);
+      recordDefaultValues[i] = getDefaultValue(types[i]);
+    }
+    for (int i = 0; i < names.length; i++) {
+      Converter converter = getConverter(types[i]);
+      if (converter != null) {
+        properties.put(names[i], new Property(converter, null, i));
+      }
+    }
+    return MethodHandles.publicLookup().unreflectConstructor(type.getConstructor(types))
+        .asSpreader(Object[].class, types.length)
+        .asType(MethodType.methodType(Object.class, Object[].class));
+  }
+
+  private static @Nullable Object getDefaultValue(@NotNull Class<?> componentType) {
+    // zero value for primitive types, null for all others
+    return Array.get(Array.newInstance(componentType, 1), 0);
+  }
+
+  /**
+   * Rank of supported property types to choose deterministically between overloaded setters,
+   * independent of the order of methods returned by reflection. String is preferred, as it accepts any value,
+   * then wider numeric types. Primitive types are preferred over their wrapper types.
+   */
+  private static int getTypeRank(@NotNull Class<?> propertyType) {
+    Class<?> wrapperType = ClassUtils.primitiveToWrapper(propertyType);
+    int rank;
+    if (wrapperType == String.class) {
+      rank = 0;
+    }
+    else if (wrapperType == String[].class) {
+      rank = 1;
+    }
+    else if (wrapperType == Long.class) {
+      rank = 2;
+    }
+    else if (wrapperType == Integer.class) {
+      rank = 3;
+    }
+    else if (wrapperType == Double.class) {
+      rank = 4;
+    }
+    else if (wrapperType == Float.class) {
+      rank = 5;
+    }
+    else if (wrapperType == Boolean.class) {
+      rank = 6;
+    }
+    else {
+      rank = 7;
+    }
+    return rank * 2 + (propertyType.isPrimitive() ? 0 : 1);
+  }
+
+  private static MethodHandle toGenericSetter(MethodHandle setter) {
+    return setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+  }
+
+  /**
+   * Gets the binder for the given type.
+   * @param <T> Target type
+   * @param type Target type
+   * @return Binder, cached per type
+   * @throws IllegalArgumentException if the type is not public, or has neither a public no-arg constructor
+   *           nor is a record.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> @NotNull RequestParamBinder<T> forType(@NotNull Class<T> type) {
+    return (RequestParamBinder<T>)BINDERS.get(type);
+  }
+
+  /**
+   * Creates a new instance of the target type and binds the request parameters to it.
+   * @param request Request
+   * @return New instance with bound parameters
+   */
+  @SuppressWarnings({ "unchecked", "java:S112" })
+  public @NotNull T bind(@NotNull ServletRequest request) {
+    boolean decode = DecodedParameters.get(request).isConversionRequired();
+    Map<String, String[]> parameterMap = request.getParameterMap();
+    try {
+      if (record) {
+        Object[] args = recordDefaultValues.clone();
+        bindParameters(parameterMap, decode, (property, value) -> args[property.index] = value);
+        return (T)constructor.invokeExact(args);
+      }
+      else {
+        Object target = constructor.invokeExact();
+        bindParameters(parameterMap, decode, (property, value) -> {
+          try {
+            property.setter.invokeExact(target, value);
+          }
+          catch (RuntimeException | Error ex) {
+            throw ex;
+          }
+          catch (Throwable ex) {
+            throw new IllegalStateException("Unable to set property of " + type.getName(), ex);
+          }
+        });
+        return (T)target;
+      }
+    }
+    catch (RuntimeException | Error ex) {
+      throw ex;
+    }
+    catch (Throwable ex) {
+      throw new IllegalStateException("Unable to create instance of " + type.getName(), ex);
+    }
+  }
+
+  private void bindParameters(@NotNull Map<String, String[]> parameterMap, boolean decode, @NotNull PropertyConsumer consumer) {
+    for (Map.Entry<String, String[]> entry : parameterMap.entrySet()) {
+      Property property = properties.get(entry.getKey());
+      String[] values = entry.getValue();
+      if (property != null && values != null && values.length > 0) {
+        Object value = property.converter.convert(values, decode);
+        if (value != INVALID) {
+          consumer.accept(property, value);
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static @Nullable Converter getConverter(@NotNull Class<?> propertyType) {
+    Class<?> wrapperType = ClassUtils.primitiveToWrapper(propertyType);
+    if (wrapperType == String.class) {
+      return (values, decode) -> values[0] == null ? INVALID : decode(values[0], decode);
+    }
+    if (wrapperType == String[].class) {
+      return (values, decode) -> {
+        String[] result = values.clone();
+        for (int i = 0; i < result.length; i++) {
+          result[i] = decode(result[i], decode);
+        }
+        return result;
+      };
+    }
+    if (wrapperType == Integer.class) {
+      return (values, decode) -> ParameterParser.isInteger(values[0], Integer.MIN_VALUE, Integer.MAX_VALUE)
+          ? (Object)Integer.parseInt(values[0]) : INVALID;
+    }
+    if (wrapperType == Long.class) {
+      return (values, decode) -> ParameterParser.isInteger(values[0], Long.MIN_VALUE, Long.MAX_VALUE)
+          ? (Object)Long.parseLong(values[0]) : INVALID;
+    }
+    if (wrapperType == Float.class) {
+      return (values, decode) -> {
+        if (ParameterParser.isDecimal(values[0])) {
+          return Float.parseFloat(values[0]);
+        }
+        // other valid values are hexadecimal and never NaN
+        float value = ParameterParser.toFloat(values[0], Float.NaN);
+        return Float.isNaN(value) ? INVALID : value;
+      };
+    }
+    if (wrapperType == Double.class) {
+      return (values, decode) -> {
+        if (ParameterParser.isDecimal(values[0])) {
+          return Double.parseDouble(values[0]);
+        }
+        // other valid values are hexadecimal and never NaN
+        double value = ParameterParser.toDouble(values[0], Double.NaN);
+        return Double.isNaN(value) ? INVALID : value;
+      };
+    }
+    if (wrapperType == Boolean.class) {
+      return (values, decode) -> {
+        Boolean value = BooleanUtils.toBooleanObject(values[0]);
+        return value != null ? value : INVALID;
+      };
+    }
+    if (propertyType.isEnum()) {
+      Class<? extends Enum> enumClass = (Class<? extends Enum>)propertyType;
+      return (values, decode) -> {
+        Object value = ParameterParser.toEnum(decode(values[0], decode), enumClass, null);
+        return value != null ? value : INVALID;
+      };
+    }
+    return null;
+  }
+
+  private static @Nullable String decode(@Nullable String value, boolean decode) {
+    if (value != null && decode) {
+      return DecodedParameters.convertISO88591toUTF8(value);
+    }
+    return value;
+  }
+
+  /**
+   * Accesses record metadata via reflection, as records are not available in the Java version this library is
+   * compiled for.
+   */
+  private static final class RecordSupport {
+
+    private RecordSupport() {
+      // static methods only
+    }
+
+    static boolean isRecord(@NotNull Class<?> type) throws ReflectiveOperationException {
+      Method isRecord;
+      try {
+        isRecord = Class.class.getMethod("isRecord");
+      }
+      catch (NoSuchMethodException ex) {
+        return false;
+      }
+      return (Boolean)isRecord.invoke(type);
+    }
+
+    static Object @NotNull [] getComponents(@NotNull Class<?> type) throws ReflectiveOperationException {
+      return (Object[])Class.class.getMethod("getRecordComponents").invoke(type);
+    }
+
+    static @NotNull String getName(@NotNull Object component) throws ReflectiveOperationException {
+      return (String)component.getClass().getMethod("getName").invoke(component);
+    }
+
+    static @NotNull Class<?> getType(@NotNull Object component) throws ReflectiveOperationException {
+      return (Class<?>)component.getClass().getMethod("getType").invoke(component);
+    }
+
+  }
+
+  @FunctionalInterface
+  private interface Converter {
+    /**
+     * @param values Parameter values (at least one)
+     * @param decode Convert from ISO-8859-1 to UTF-8
+     * @return Converted value or {@link RequestParamBinder#INVALID}
+     */
+    Object convert(String @NotNull [] values, boolean decode);
+  }
+
+  @FunctionalInterface
+  private interface PropertyConsumer {
+    void accept(Property property, Object value);
+  }
+
+  private static final class Property {
+
+    private final Converter converter;
+    private final MethodHandle setter;
+    private final int index;
+
+    Property(Converter converter, MethodHandle setter, int index) {
+      this.converter = converter;
+      this.setter = setter;
+      this.index = index;
+    }
+
+  }
+
+}
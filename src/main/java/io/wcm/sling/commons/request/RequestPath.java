@@ -41,20 +41,21 @@ public final class RequestPath {
    * @return true if the selector was found
    */
   public static boolean hasSelector(@NotNull SlingHttpServletRequest request, @NotNull String expectedSelector) {
-    String[] selectors = request.getRequestPathInfo().getSelectors();
+    String[] selectors = RequestSelectors.get(request);
     return ArrayUtils.contains(selectors, expectedSelector);
   }
 
   /**
    * Checks if one of the given selectors is present in the current URL request (at any position).
+   * Use {@link SelectorMatcher} when checking for the same selectors repeatedly.
    * @param request Sling request
    * @param expectedSelectors Selectors string to check for.
    * @return true if the selector was found
    */
   @SuppressWarnings({ "null", "java:S2589" }) // extra null checks for backward compatibility
   public static boolean hasAnySelector(@NotNull SlingHttpServletRequest request, @NotNull String @NotNull... expectedSelectors) {
-    String[] selectors = request.getRequestPathInfo().getSelectors();
-    if (selectors != null && expectedSelectors != null) {
+    String[] selectors = RequestSelectors.get(request);
+    if (expectedSelectors != null) {
       for (String expectedSelector : expectedSelectors) {
         if (ArrayUtils.contains(selectors, expectedSelector)) {
           return true;
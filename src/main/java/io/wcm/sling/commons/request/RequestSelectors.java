@@ -0,0 +1,68 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import java.util.Objects;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.request.RequestPathInfo;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Selectors of the current request path info, cached as request attribute.
+ * Avoids fetching (and possibly cloning) the selectors array from the request path info for each check.
+ */
+final class RequestSelectors {
+
+  static final String REQUEST_ATTRIBUTE_NAME = RequestSelectors.class.getName();
+
+  private static final String[] EMPTY = new String[0];
+
+  private final String selectorString;
+  private final String[] selectors;
+
+  private RequestSelectors(@NotNull RequestPathInfo requestPathInfo) {
+    this.selectorString = requestPathInfo.getSelectorString();
+    String[] value = requestPathInfo.getSelectors();
+    this.selectors = value != null ? value : EMPTY;
+  }
+
+  /**
+   * Gets the selectors of the current request path info.
+   * The cache is validated against the selector string of the request path info, which changes e.g. for includes
+   * with other selectors, or if the selectors of a mutable request path info are changed.
+   * @param request Request
+   * @return Selectors. The array is shared and must not be modified.
+   */
+  static String @NotNull [] get(@NotNull SlingHttpServletRequest request) {
+    RequestPathInfo requestPathInfo = request.getRequestPathInfo();
+    Object attribute = request.getAttribute(REQUEST_ATTRIBUTE_NAME);
+    if (attribute instanceof RequestSelectors) {
+      RequestSelectors cached = (RequestSelectors)attribute;
+      if (Objects.equals(cached.selectorString, requestPathInfo.getSelectorString())) {
+        return cached.selectors;
+      }
+    }
+    RequestSelectors requestSelectors = new RequestSelectors(requestPathInfo);
+    request.setAttribute(REQUEST_ATTRIBUTE_NAME, requestSelectors);
+    return requestSelectors.selectors;
+  }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Checks if any of a fixed set of selectors is present in the current URL request (at any position).
+ * <p>
+ * The expected selectors are compiled once into a collision-free hash table, so checking a selector is a single
+ * table lookup. If no collision-free table of limited size exists (e.g. for selectors with the same hash code),
+ * an open-addressing table with linear probing is used instead. The selectors of the request are cached per
+ * request. Instances are immutable and thread-safe, so they can be shared as constants:
+ * </p>
+ *
+ * <pre>
+ * private static final SelectorMatcher PRINT_SELECTORS = SelectorMatcher.of("print", "pdf");
+ * ...
+ * if (PRINT_SELECTORS.matches(request)) { ... }
+ * </pre>
+ */
+@ProviderType
+public final class SelectorMatcher {
+
+  private static final int MAX_SEED_ATTEMPTS = 64;
+
+  /**
+   * Max. number of times the table size is doubled when searching a collision-free table.
+   */
+  private static final int MAX_EXTRA_BITS = 3;
+
+  private final String[] table;
+  private final int multiplier;
+  private final int shift;
+  private final boolean probing;
+
+  private SelectorMatcher(String[] table, int multiplier, int shift, boolean probing) {
+    this.table = table;
+    this.multiplier = multiplier;
+    this.shift = shift;
+    this.probing = probing;
+  }
+
+  /**
+   * @return Table with each selector at its hash slot, or null if two different selectors share a slot
+   */
+  private static String @Nullable [] buildTable(@Nullable String @NotNull [] selectors, int multiplier, int shift) {
+    String[] result = new String[1 << (32 - shift)];
+    for (String selector : selectors) {
+      if (selector == null) {
+        continue;
+      }
+      int slot = slot(selector, multiplier, shift);
+      if (result[slot] != null && !result[slot].equals(selector)) {
+        return null;
+      }
+      result[slot] = selector;
+    }
+    return result;
+  }
+
+  /**
+   * @return Open-addressing table with linear probing, at least twice as large as the number of selectors
+   */
+  private static String @NotNull [] buildProbingTable(@Nullable String @NotNull [] selectors, int multiplier, int shift) {
+    String[] result = new String[1 << (32 - shift)];
+    int mask = result.length - 1;
+    for (String selector : selectors) {
+      if (selector == null) {
+        continue;
+      }
+      int slot = slot(selector, multiplier, shift);
+      while (result[slot] != null && !result[slot].equals(selector)) {
+        slot = (slot + 1) & mask;
+      }
+      result[slot] = selector;
+    }
+    return result;
+  }
+
+  private static int slot(@NotNull String selector, int multiplier, int shift) {
+    return (selector.hashCode() * multiplier) >>> shift;
+  }
+
+  /**
+   * Creates a selector matcher.
+   * @param expectedSelectors Selectors to check for. Null values are ignored.
+   * @return Selector matcher
+   */
+  @SuppressWarnings("null")
+  public static @NotNull SelectorMatcher of(@Nullable String @Nullable... expectedSelectors) {
+    if (expectedSelectors == null) {
+      return of(new String[0]);
+    }
+    // search multiplier that maps all selectors to different slots, increase table size if none is found
+    int minBits = 1;
+    while ((1 << minBits) < expectedSelectors.length * 2) {
+      minBits++;
+    }
+    for (int bits = minBits; bits <= minBits + MAX_EXTRA_BITS; bits++) {
+      for (int attempt = 0; attempt < MAX_SEED_ATTEMPTS; attempt++) {
+        int multiplier = 0x9E3779B9 + attempt * 0x632BE5AB;
+        String[] table = buildTable(expectedSelectors, multiplier, 32 - bits);
+        if (table != null) {
+          return new SelectorMatcher(table, multiplier, 32 - bits, false);
+        }
+      }
+    }
+    // no collision-free table found, e.g. because selectors share the same hash code
+    return new SelectorMatcher(buildProbingTable(expectedSelectors, 0x9E3779B9, 32 - minBits), 0x9E3779B9, 32 - minBits, true);
+  }
+
+  /**
+   * @param selector Selector
+   * @return true if the given selector is one of the expected selectors
+   */
+  public boolean contains(@Nullable String selector) {
+    if (selector == null) {
+      return false;
+    }
+    int slot = slot(selector, multiplier, shift);
+    String candidate = table[slot];
+    if (!probing) {
+      return candidate != null && candidate.equals(selector);
+    }
+    int mask = table.length - 1;
+    while (candidate != null) {
+      if (candidate.equals(selector)) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+      candidate = table[slot];
+    }
+    return false;
+  }
+
+  /**
+   * Checks if one of the expected selectors is present in the current URL request (at any position).
+   * @param request Sling request
+   * @return true if one of the selectors was found
+   */
+  public boolean matches(@NotNull SlingHttpServletRequest request) {
+    for (String selector : RequestSelectors.get(request)) {
+      if (contains(selector)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
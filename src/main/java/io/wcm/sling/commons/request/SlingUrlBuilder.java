@@ -0,0 +1,187 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Builds Sling URLs consisting of host, base path, path, selectors, extension, suffix and query string
+ * into a single presized buffer.
+ * <p>
+ * The parts common to many links (host, base path, extension and selectors) are configured once,
+ * each {@link #build(String)} call then only adds the link-specific parts. Once configured, the builder can be
+ * reused for all links of a page, {@link #build(String)} does not modify the builder.
+ * </p>
+ *
+ * <pre>
+ * SlingUrlBuilder links = SlingUrlBuilder.create().host("https://www.example.com").extension("html");
+ * String url1 = links.build("/content/site/en/page1");
+ * String url2 = links.build("/content/site/en/page2", new String[] { "print" }, "/suffix", queryStringBuilder);
+ * </pre>
+ */
+@ProviderType
+public final class SlingUrlBuilder {
+
+  private static final String[] NO_SELECTORS = new String[0];
+
+  private String host = "";
+  private String basePath = "";
+  private String extension;
+  private String[] selectors = NO_SELECTORS;
+  private int fixedLength;
+
+  private SlingUrlBuilder() {
+    // use create()
+  }
+
+  /**
+   * @return New URL builder without common parts
+   */
+  public static @NotNull SlingUrlBuilder create() {
+    return new SlingUrlBuilder();
+  }
+
+  /**
+   * @param value Scheme and host, e.g. "https://www.example.com", prepended to all URLs
+   * @return this
+   */
+  public @NotNull SlingUrlBuilder host(@Nullable String value) {
+    this.host = value != null ? value : "";
+    updateFixedLength();
+    return this;
+  }
+
+  /**
+   * @param value Base path, prepended to all paths
+   * @return this
+   */
+  public @NotNull SlingUrlBuilder basePath(@Nullable String value) {
+    this.basePath = value != null ? value : "";
+    updateFixedLength();
+    return this;
+  }
+
+  /**
+   * @param value Extension (without dot) for all URLs
+   * @return this
+   */
+  public @NotNull SlingUrlBuilder extension(@Nullable String value) {
+    this.extension = value;
+    updateFixedLength();
+    return this;
+  }
+
+  /**
+   * @param values Selectors added to all URLs, before the link-specific selectors
+   * @return this
+   */
+  public @NotNull SlingUrlBuilder selectors(@NotNull String @Nullable... values) {
+    this.selectors = values != null ? values.clone() : NO_SELECTORS;
+    updateFixedLength();
+    return this;
+  }
+
+  /**
+   * Adds the selectors of the current request to all URLs, before the link-specific selectors.
+   * @param request Sling request
+   * @return this
+   */
+  public @NotNull SlingUrlBuilder selectorsFrom(@NotNull SlingHttpServletRequest request) {
+    return selectors(RequestSelectors.get(request));
+  }
+
+  private void updateFixedLength() {
+    int length = host.length() + basePath.length();
+    for (String selector : selectors) {
+      length += selector.length() + 1;
+    }
+    if (extension != null) {
+      length += extension.length() + 1;
+    }
+    this.fixedLength = length;
+  }
+
+  /**
+   * Builds URL.
+   * @param path Resource path
+   * @return URL
+   */
+  public @NotNull String build(@NotNull String path) {
+    return build(path, null, null, null);
+  }
+
+  /**
+   * Builds URL.
+   * @param path Resource path
+   * @param linkSelectors Link-specific selectors, added after the common selectors
+   * @param suffix Suffix. A leading slash is added if missing.
+   * @param queryString Query string
+   * @return URL
+   */
+  public @NotNull String build(@NotNull String path, @NotNull String @Nullable [] linkSelectors,
+      @Nullable String suffix, @Nullable QueryStringBuilder queryString) {
+    int length = fixedLength + path.length();
+    if (linkSelectors != null) {
+      for (String selector : linkSelectors) {
+        length += selector.length() + 1;
+      }
+    }
+    if (suffix != null) {
+      length += suffix.length() + 1;
+    }
+    if (queryString != null) {
+      length += queryString.estimateLength() + 1;
+    }
+
+    StringBuilder url = new StringBuilder(length);
+    url.append(host).append(basePath).append(path);
+    for (String selector : selectors) {
+      url.append('.').append(selector);
+    }
+    if (linkSelectors != null) {
+      for (String selector : linkSelectors) {
+        url.append('.').append(selector);
+      }
+    }
+    if (extension != null) {
+      url.append('.').append(extension);
+    }
+    if (suffix != null && !suffix.isEmpty()) {
+      if (suffix.charAt(0) != '/') {
+        url.append('/');
+      }
+      url.append(suffix);
+    }
+    if (queryString != null) {
+      int queryStart = url.length();
+      url.append('?');
+      queryString.appendTo(url);
+      if (url.length() == queryStart + 1) {
+        // remove separator if query string is empty
+        url.setLength(queryStart);
+      }
+    }
+    return url.toString();
+  }
+
+}
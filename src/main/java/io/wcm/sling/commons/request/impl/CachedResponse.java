@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request.impl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Complete response stored in the response cache.
+ */
+final class CachedResponse {
+
+  private final String contentType;
+  private final String characterEncoding;
+  private final Locale locale;
+  private final Map<String, List<String>> headers;
+  private final byte[] body;
+  private final long resourceGeneration;
+  private final long serviceGeneration;
+
+  CachedResponse(@Nullable String contentType, @Nullable String characterEncoding, @Nullable Locale locale,
+      @NotNull Map<String, List<String>> headers, byte @NotNull [] body,
+      long resourceGeneration, long serviceGeneration) {
+    this.contentType = contentType;
+    this.characterEncoding = characterEncoding;
+    this.locale = locale;
+    this.headers = headers;
+    this.body = body;
+    this.resourceGeneration = resourceGeneration;
+    this.serviceGeneration = serviceGeneration;
+  }
+
+  /**
+   * @param currentResourceGeneration Current resource change generation
+   * @param currentServiceGeneration Current context-aware service change generation
+   * @return true if no resource or service change happened since the response was rendered
+   */
+  boolean isValid(long currentResourceGeneration, long currentServiceGeneration) {
+    return resourceGeneration == currentResourceGeneration
+        && serviceGeneration == currentServiceGeneration;
+  }
+
+  /**
+   * @return Approximate memory size in bytes
+   */
+  int getWeight() {
+    int weight = body.length + 64;
+    for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+      weight += entry.getKey().length() * 2;
+      for (String value : entry.getValue()) {
+        weight += value.length() * 2;
+      }
+    }
+    return weight;
+  }
+
+  /**
+   * Writes the cached response.
+   * @param response Response
+   * @throws IOException I/O exception
+   */
+  void writeTo(@NotNull HttpServletResponse response) throws IOException {
+    response.setStatus(HttpServletResponse.SC_OK);
+    if (contentType != null) {
+      response.setContentType(contentType);
+    }
+    if (characterEncoding != null) {
+      response.setCharacterEncoding(characterEncoding);
+    }
+    if (locale != null) {
+      response.setLocale(locale);
+    }
+    for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+      boolean first = true;
+      for (String value : entry.getValue()) {
+        if (first) {
+          response.setHeader(entry.getKey(), value);
+          first = false;
+        }
+        else {
+          response.addHeader(entry.getKey(), value);
+        }
+      }
+    }
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+}
@@ -0,0 +1,382 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.SlingHttpServletResponse;
+import org.apache.sling.api.wrappers.SlingHttpServletResponseWrapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Response wrapper that passes the response through to the client and captures status, headers and body
+ * for storing them in the response cache. Capturing is given up as soon as the response turns out not to be cacheable.
+ * Output is written to the wrapped response immediately, so nothing is lost if rendering fails.
+ */
+final class CapturingResponseWrapper extends SlingHttpServletResponseWrapper {
+
+  private static final DateTimeFormatter HTTP_DATE_FORMAT = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+  private final int maxBodySize;
+  // header names are case-insensitive
+  private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+  private Locale locale;
+  private ByteArrayOutputStream body = new ByteArrayOutputStream();
+  private StringBuilder writerBody;
+  private String writerCharset;
+  private int status = HttpServletResponse.SC_OK;
+  private boolean cacheable = true;
+  private ServletOutputStream outputStream;
+  private PrintWriter writer;
+
+  /**
+   * @param response Response
+   * @param maxBodySize Max. body size in bytes that is captured
+   */
+  CapturingResponseWrapper(@NotNull SlingHttpServletResponse response, int maxBodySize) {
+    super(response);
+    this.maxBodySize = maxBodySize;
+  }
+
+  private void notCacheable() {
+    cacheable = false;
+    body = null;
+    writerBody = null;
+  }
+
+  /**
+   * @return Captured response, or null if the response is not cacheable
+   */
+  @Nullable
+  CachedResponse getCachedResponse(long resourceGeneration, long serviceGeneration) {
+    if (!cacheable || status != HttpServletResponse.SC_OK) {
+      return null;
+    }
+    byte[] bytes;
+    if (writerBody != null) {
+      try {
+        bytes = writerBody.toString().getBytes(writerCharset);
+      }
+      catch (UnsupportedEncodingException ex) {
+        return null;
+      }
+      if (bytes.length > maxBodySize) {
+        return null;
+      }
+    }
+    else {
+      bytes = body.toByteArray();
+    }
+    return new CachedResponse(getContentType(), getCharacterEncoding(), locale, headers, bytes,
+        resourceGeneration, serviceGeneration);
+  }
+
+  @Override
+  public void setStatus(int sc) {
+    status = sc;
+    super.setStatus(sc);
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public void setStatus(int sc, String sm) {
+    status = sc;
+    super.setStatus(sc, sm);
+  }
+
+  @Override
+  public void sendError(int sc) throws IOException {
+    notCacheable();
+    super.sendError(sc);
+  }
+
+  @Override
+  public void sendError(int sc, String msg) throws IOException {
+    notCacheable();
+    super.sendError(sc, msg);
+  }
+
+  @Override
+  public void sendRedirect(String location) throws IOException {
+    notCacheable();
+    super.sendRedirect(location);
+  }
+
+  @Override
+  public void addCookie(Cookie cookie) {
+    notCacheable();
+    super.addCookie(cookie);
+  }
+
+  @Override
+  public void reset() {
+    notCacheable();
+    super.reset();
+  }
+
+  @Override
+  public void resetBuffer() {
+    notCacheable();
+    super.resetBuffer();
+  }
+
+  @Override
+  public void setLocale(Locale loc) {
+    locale = loc;
+    super.setLocale(loc);
+  }
+
+  @Override
+  public void setHeader(String name, String value) {
+    recordHeader(name, value, true);
+    super.setHeader(name, value);
+  }
+
+  @Override
+  public void addHeader(String name, String value) {
+    recordHeader(name, value, false);
+    super.addHeader(name, value);
+  }
+
+  @Override
+  public void setIntHeader(String name, int value) {
+    recordHeader(name, Integer.toString(value), true);
+    super.setIntHeader(name, value);
+  }
+
+  @Override
+  public void addIntHeader(String name, int value) {
+    recordHeader(name, Integer.toString(value), false);
+    super.addIntHeader(name, value);
+  }
+
+  @Override
+  public void setDateHeader(String name, long date) {
+    recordHeader(name, HTTP_DATE_FORMAT.format(Instant.ofEpochMilli(date)), true);
+    super.setDateHeader(name, date);
+  }
+
+  @Override
+  public void addDateHeader(String name, long date) {
+    recordHeader(name, HTTP_DATE_FORMAT.format(Instant.ofEpochMilli(date)), false);
+    super.addDateHeader(name, date);
+  }
+
+  private void recordHeader(String name, String value, boolean replace) {
+    if (!cacheable || name == null) {
+      return;
+    }
+    String lowerName = name.toLowerCase(Locale.ENGLISH);
+    // responses varying by request headers or setting cookies may be personalized
+    if (StringUtils.equals(lowerName, "set-cookie")
+        || StringUtils.equals(lowerName, "vary")
+        || (StringUtils.equals(lowerName, "cache-control") && isPrivate(value))) {
+      notCacheable();
+      return;
+    }
+    if (StringUtils.equals(lowerName, "content-length") || StringUtils.equals(lowerName, "content-type")) {
+      // calculated from captured body, or captured from response
+      return;
+    }
+    List<String> values = headers.get(name);
+    if (values == null || replace) {
+      values = new ArrayList<>(1);
+      headers.put(name, values);
+    }
+    values.add(value);
+  }
+
+  private static boolean isPrivate(@Nullable String cacheControl) {
+    return StringUtils.containsIgnoreCase(cacheControl, "private")
+        || StringUtils.containsIgnoreCase(cacheControl, "no-store")
+        || StringUtils.containsIgnoreCase(cacheControl, "no-cache");
+  }
+
+  @Override
+  public ServletOutputStream getOutputStream() throws IOException {
+    if (writer != null) {
+      throw new IllegalStateException("getWriter() has already been called.");
+    }
+    if (outputStream == null) {
+      outputStream = new CapturingOutputStream(super.getOutputStream());
+    }
+    return outputStream;
+  }
+
+  @Override
+  public PrintWriter getWriter() throws IOException {
+    if (outputStream != null) {
+      throw new IllegalStateException("getOutputStream() has already been called.");
+    }
+    if (writer == null) {
+      // character encoding can not be changed after the writer was obtained
+      writerCharset = StringUtils.defaultString(getCharacterEncoding(), "ISO-8859-1");
+      if (cacheable) {
+        writerBody = new StringBuilder(body.size());
+      }
+      writer = new PrintWriter(new CapturingWriter(super.getWriter()));
+    }
+    return writer;
+  }
+
+  private void capture(byte[] bytes, int off, int len) {
+    if (!cacheable) {
+      return;
+    }
+    if (body.size() + len > maxBodySize) {
+      notCacheable();
+      return;
+    }
+    body.write(bytes, off, len);
+  }
+
+  private void capture(char[] chars, int off, int len) {
+    if (!cacheable) {
+      return;
+    }
+    // each character is encoded to at least one byte
+    if (writerBody.length() + len > maxBodySize) {
+      notCacheable();
+      return;
+    }
+    writerBody.append(chars, off, len);
+  }
+
+  private void capture(String str, int off, int len) {
+    if (!cacheable) {
+      return;
+    }
+    if (writerBody.length() + len > maxBodySize) {
+      notCacheable();
+      return;
+    }
+    writerBody.append(str, off, off + len);
+  }
+
+  /**
+   * Writes to the response writer and the capture buffer.
+   */
+  private final class CapturingWriter extends Writer {
+
+    private final PrintWriter delegate;
+    private final char[] single = new char[1];
+
+    CapturingWriter(@NotNull PrintWriter delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void write(int c) {
+      delegate.write(c);
+      single[0] = (char)c;
+      capture(single, 0, 1);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+      delegate.write(cbuf, off, len);
+      capture(cbuf, off, len);
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+      delegate.write(str, off, len);
+      capture(str, off, len);
+    }
+
+    @Override
+    public void flush() {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+
+  }
+
+  /**
+   * Writes to the response output stream and the capture buffer.
+   */
+  private final class CapturingOutputStream extends ServletOutputStream {
+
+    private final ServletOutputStream delegate;
+    private final byte[] single = new byte[1];
+
+    CapturingOutputStream(@NotNull ServletOutputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+      single[0] = (byte)b;
+      capture(single, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      delegate.write(b, off, len);
+      capture(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      delegate.setWriteListener(writeListener);
+    }
+
+  }
+
+}
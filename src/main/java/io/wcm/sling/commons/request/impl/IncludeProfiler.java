@@ -0,0 +1,262 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Records the processing time of component includes passing the {@link RequestContextFilterImpl}.
+ * Timings are aggregated into global histograms per resource type, and into a call tree per outermost request.
+ * The call trees of the most recent requests are kept for inspection.
+ */
+final class IncludeProfiler {
+
+  /**
+   * Number of histogram buckets. Bucket 0 counts durations below 1 microsecond,
+   * bucket i durations from 2^(i-1) to 2^i microseconds, the last bucket all longer durations.
+   */
+  static final int BUCKET_COUNT = 32;
+
+  static final String UNKNOWN_RESOURCE_TYPE = "(unknown)";
+
+  private final ConcurrentHashMap<String, ResourceTypeStats> stats = new ConcurrentHashMap<>();
+  private final AtomicReferenceArray<Node> recentRequests;
+  private final AtomicInteger recentRequestsIndex = new AtomicInteger();
+
+  /**
+   * @param recentRequestsSize Number of call trees of most recent requests to keep
+   */
+  IncludeProfiler(int recentRequestsSize) {
+    this.recentRequests = new AtomicReferenceArray<>(Math.max(recentRequestsSize, 0));
+  }
+
+  /**
+   * Starts recording an include.
+   * @param stack Request stack of current thread
+   * @param request Request
+   * @return Call tree node
+   */
+  @NotNull
+  Node start(@NotNull RequestStack stack, @NotNull SlingHttpServletRequest request) {
+    Node parent = stack.getProfileNode();
+    Resource resource = request.getResource();
+    Node node = new Node(parent,
+        resource != null ? resource.getResourceType() : UNKNOWN_RESOURCE_TYPE,
+        resource != null ? resource.getPath() : null);
+    if (parent != null) {
+      parent.addChild(node);
+    }
+    stack.setProfileNode(node);
+    node.startNanos = System.nanoTime();
+    return node;
+  }
+
+  /**
+   * Ends recording an include started with {@link #start(RequestStack, SlingHttpServletRequest)}.
+   * @param stack Request stack of current thread
+   * @param node Call tree node
+   */
+  void end(@NotNull RequestStack stack, @NotNull Node node) {
+    node.durationNanos = System.nanoTime() - node.startNanos;
+    stats.computeIfAbsent(node.resourceType, ResourceTypeStats::new).record(node.durationNanos);
+    stack.setProfileNode(node.parent);
+    if (node.parent == null && recentRequests.length() > 0) {
+      int index = Math.floorMod(recentRequestsIndex.getAndIncrement(), recentRequests.length());
+      recentRequests.set(index, node);
+    }
+  }
+
+  /**
+   * @return Statistics per resource type, ordered by total time descending
+   */
+  @NotNull
+  List<ResourceTypeStats> getResourceTypeStats() {
+    List<ResourceTypeStats> result = new ArrayList<>(stats.values());
+    result.sort((s1, s2) -> Long.compare(s2.getTotalNanos(), s1.getTotalNanos()));
+    return result;
+  }
+
+  /**
+   * @return Call trees of most recent requests, most recent first
+   */
+  @NotNull
+  List<Node> getRecentRequests() {
+    int length = recentRequests.length();
+    if (length == 0) {
+      return Collections.emptyList();
+    }
+    List<Node> result = new ArrayList<>(length);
+    int last = recentRequestsIndex.get();
+    for (int i = 1; i <= length; i++) {
+      Node node = recentRequests.get(Math.floorMod(last - i, length));
+      if (node != null) {
+        result.add(node);
+      }
+    }
+    return result;
+  }
+
+  static int getBucket(long nanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    int bucket = 64 - Long.numberOfLeadingZeros(micros);
+    return Math.min(bucket, BUCKET_COUNT - 1);
+  }
+
+  /**
+   * @param bucket Bucket index
+   * @return Upper bound of bucket in microseconds
+   */
+  static long getBucketUpperBoundMicros(int bucket) {
+    return 1L << bucket;
+  }
+
+  /**
+   * Include of a single component within the call tree of a request.
+   * Children may be added concurrently by threads running tasks wrapped via the RequestContext wrap methods,
+   * so the list of children is guarded by the node. All other fields are only modified by the thread processing the
+   * include, and published to other threads when the request is completed.
+   */
+  static final class Node {
+
+    private final Node parent;
+    private final String resourceType;
+    private final String path;
+    private List<Node> children;
+    private long startNanos;
+    private long durationNanos;
+
+    Node(@Nullable Node parent, @NotNull String resourceType, @Nullable String path) {
+      this.parent = parent;
+      this.resourceType = resourceType;
+      this.path = path;
+    }
+
+    private synchronized void addChild(@NotNull Node child) {
+      if (children == null) {
+        children = new ArrayList<>();
+      }
+      children.add(child);
+    }
+
+    @NotNull
+    String getResourceType() {
+      return resourceType;
+    }
+
+    @Nullable
+    String getPath() {
+      return path;
+    }
+
+    long getDurationNanos() {
+      return durationNanos;
+    }
+
+    /**
+     * @return Snapshot of child nodes
+     */
+    @NotNull
+    synchronized List<Node> getChildren() {
+      return children != null ? List.copyOf(children) : Collections.emptyList();
+    }
+
+  }
+
+  /**
+   * Aggregated include timings of a resource type.
+   */
+  static final class ResourceTypeStats {
+
+    private final String resourceType;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_COUNT);
+
+    ResourceTypeStats(@NotNull String resourceType) {
+      this.resourceType = resourceType;
+    }
+
+    void record(long nanos) {
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+      histogram.incrementAndGet(getBucket(nanos));
+    }
+
+    @NotNull
+    String getResourceType() {
+      return resourceType;
+    }
+
+    long getCount() {
+      return count.sum();
+    }
+
+    long getTotalNanos() {
+      return totalNanos.sum();
+    }
+
+    long getMaxNanos() {
+      return maxNanos.get();
+    }
+
+    /**
+     * @param percentile Percentile (0-100)
+     * @return Upper bound in microseconds of the histogram bucket containing the given percentile
+     */
+    long getPercentileMicros(double percentile) {
+      long[] counts = new long[BUCKET_COUNT];
+      long total = 0;
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        counts[i] = histogram.get(i);
+        total += counts[i];
+      }
+      if (total == 0) {
+        return 0;
+      }
+      long threshold = (long)Math.ceil(total * percentile / 100d);
+      long sum = 0;
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        sum += counts[i];
+        if (sum >= threshold) {
+          return getBucketUpperBoundMicros(i);
+        }
+      }
+      return getBucketUpperBoundMicros(BUCKET_COUNT - 1);
+    }
+
+  }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request.impl;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.felix.inventory.Format;
+import org.apache.felix.inventory.InventoryPrinter;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import io.wcm.sling.commons.request.RequestContext;
+
+/**
+ * Inventory printer for the component include profiler.
+ */
+@Component(service = InventoryPrinter.class, property = {
+    InventoryPrinter.NAME + "=wcmio-include-profiler",
+    InventoryPrinter.TITLE + "=wcm.io Component Include Profiler",
+    InventoryPrinter.FORMAT + "=TEXT"
+})
+public class IncludeProfilerInventoryPrinter implements InventoryPrinter {
+
+  @Reference
+  private RequestContext requestContext;
+
+  @Override
+  public void print(PrintWriter pw, Format format, boolean isZip) {
+    if (format != Format.TEXT) {
+      return;
+    }
+    if (!(requestContext instanceof RequestContextFilterImpl)) {
+      return;
+    }
+    IncludeProfiler profiler = ((RequestContextFilterImpl)requestContext).getIncludeProfiler();
+    if (profiler == null) {
+      pw.println();
+      pw.println("Include profiling is disabled.");
+      pw.println("Enable it in the 'wcm.io Request Context Filter' configuration.");
+      return;
+    }
+
+    printHeadline(pw, "Resource Types");
+    List<IncludeProfiler.ResourceTypeStats> stats = profiler.getResourceTypeStats();
+    if (stats.isEmpty()) {
+      pw.println("No includes recorded.");
+    }
+    else {
+      pw.println(String.format(Locale.ENGLISH, "%10s %12s %10s %10s %10s %10s %10s  %s",
+          "count", "total ms", "avg us", "p50 us", "p90 us", "p99 us", "max us", "resource type"));
+      for (IncludeProfiler.ResourceTypeStats item : stats) {
+        long count = item.getCount();
+        pw.println(String.format(Locale.ENGLISH, "%10d %12.1f %10d %10d %10d %10d %10d  %s",
+            count,
+            item.getTotalNanos() / 1_000_000d,
+            count > 0 ? TimeUnit.NANOSECONDS.toMicros(item.getTotalNanos() / count) : 0,
+            item.getPercentileMicros(50),
+            item.getPercentileMicros(90),
+            item.getPercentileMicros(99),
+            TimeUnit.NANOSECONDS.toMicros(item.getMaxNanos()),
+            item.getResourceType()));
+      }
+    }
+
+    printHeadline(pw, "Recent Requests");
+    List<IncludeProfiler.Node> recentRequests = profiler.getRecentRequests();
+    if (recentRequests.isEmpty()) {
+      pw.println("No requests recorded.");
+    }
+    for (IncludeProfiler.Node node : recentRequests) {
+      printNode(pw, node, 0);
+      pw.println();
+    }
+  }
+
+  private static void printHeadline(PrintWriter pw, String headline) {
+    pw.println();
+    pw.println(headline);
+    pw.println(StringUtils.repeat('-', headline.length()));
+  }
+
+  private static void printNode(PrintWriter pw, IncludeProfiler.Node node, int level) {
+    pw.print(StringUtils.repeat(' ', level * 2));
+    pw.println(String.format(Locale.ENGLISH, "%.3f ms %s %s",
+        node.getDurationNanos() / 1_000_000d,
+        node.getResourceType(),
+        StringUtils.defaultString(node.getPath())));
+    for (IncludeProfiler.Node child : node.getChildren()) {
+      printNode(pw, child, level + 1);
+    }
+  }
+
+}
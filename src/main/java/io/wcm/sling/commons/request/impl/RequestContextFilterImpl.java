@@ -20,7 +20,9 @@
 package io.wcm.sling.commons.request.impl;
 
 import java.io.IOException;
-import java.util.Stack;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -30,9 +32,16 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 
 import org.apache.sling.api.SlingHttpServletRequest;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 
 import io.wcm.sling.commons.request.RequestContext;
+import io.wcm.sling.commons.request.RequestMemoKey;
 
 /**
  * Servlet filter that sets the current sling request during processing to make it available via the
@@ -41,32 +50,161 @@ import io.wcm.sling.commons.request.RequestContext;
 @Component(service = { RequestContext.class, Filter.class }, immediate = true, property = {
     "sling.filter.scope=component"
 })
+@Designate(ocd = RequestContextFilterImpl.Config.class)
 public final class RequestContextFilterImpl implements RequestContext, Filter {
 
+  @ObjectClassDefinition(
+      name = "wcm.io Request Context Filter",
+      description = "Makes the current Sling request available via the RequestContext service.")
+  @interface Config {
+
+    @AttributeDefinition(
+        name = "Include Profiling",
+        description = "Records the processing time of each component include per resource type. "
+            + "The results are available in the 'wcm.io Component Include Profiler' inventory printer.")
+    boolean includeProfiling() default false;
+
+    @AttributeDefinition(
+        name = "Recent Requests",
+        description = "Number of most recent requests for which the component include tree is kept when profiling is enabled.")
+    int includeProfilingRecentRequests() default 10;
+
+  }
+
+  /**
+   * Stack of nested requests per thread. Only allocated when a thread processes its first request,
+   * lookups from threads without request never allocate. The stack is unsynchronized, it is only accessed
+   * from the owning thread.
+   */
   @SuppressWarnings("java:S5164") // request are short-lived objects, no need to call remove explicitely
-  private static final ThreadLocal<Stack<SlingHttpServletRequest>> REQUEST_THREADLOCAL = ThreadLocal.withInitial(Stack::new);
+  private static final ThreadLocal<RequestStack> REQUEST_THREADLOCAL = new ThreadLocal<>();
+
+  private IncludeProfiler includeProfiler;
+
+  @Activate
+  private void activate(Config config) {
+    if (config.includeProfiling()) {
+      includeProfiler = new IncludeProfiler(config.includeProfilingRecentRequests());
+    }
+  }
 
   @Override
   public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
-    if (request instanceof SlingHttpServletRequest) {
-      REQUEST_THREADLOCAL.get().push((SlingHttpServletRequest)request);
+    if (!(request instanceof SlingHttpServletRequest)) {
+      chain.doFilter(request, response);
+      return;
     }
+    RequestStack stack = REQUEST_THREADLOCAL.get();
+    if (stack == null) {
+      stack = new RequestStack();
+      REQUEST_THREADLOCAL.set(stack);
+    }
+    SlingHttpServletRequest slingRequest = (SlingHttpServletRequest)request;
+    stack.push(slingRequest);
+    IncludeProfiler profiler = includeProfiler;
+    IncludeProfiler.Node profileNode = profiler != null ? profiler.start(stack, slingRequest) : null;
     try {
       chain.doFilter(request, response);
     }
     finally {
-      REQUEST_THREADLOCAL.get().pop();
+      if (profileNode != null) {
+        profiler.end(stack, profileNode);
+      }
+      stack.pop();
     }
   }
 
+  /**
+   * @return Include profiler, or null if profiling is disabled
+   */
+  @Nullable
+  IncludeProfiler getIncludeProfiler() {
+    return includeProfiler;
+  }
+
   @Override
   public SlingHttpServletRequest getThreadRequest() {
-    Stack<SlingHttpServletRequest> stack = REQUEST_THREADLOCAL.get();
-    if (stack.isEmpty()) {
+    RequestStack stack = REQUEST_THREADLOCAL.get();
+    if (stack == null) {
       return null;
     }
+    return stack.peek();
+  }
+
+  @Override
+  public <T> T computeIfAbsent(@NotNull RequestMemoKey<T> key, @NotNull Supplier<T> supplier) {
+    RequestStack stack = REQUEST_THREADLOCAL.get();
+    if (stack == null) {
+      return supplier.get();
+    }
+    return stack.computeIfAbsent(key, supplier);
+  }
+
+  @Override
+  public @NotNull Runnable wrap(@NotNull Runnable task) {
+    RequestStack.Captured captured = capture();
+    if (captured == null) {
+      return task;
+    }
+    return () -> {
+      RequestStack previous = install(captured);
+      try {
+        task.run();
+      }
+      finally {
+        restore(previous);
+      }
+    };
+  }
+
+  @Override
+  public @NotNull <V> Callable<V> wrap(@NotNull Callable<V> task) {
+    RequestStack.Captured captured = capture();
+    if (captured == null) {
+      return task;
+    }
+    return () -> {
+      RequestStack previous = install(captured);
+      try {
+        return task.call();
+      }
+      finally {
+        restore(previous);
+      }
+    };
+  }
+
+  @Override
+  public @NotNull Executor wrap(@NotNull Executor executor) {
+    return command -> executor.execute(wrap(command));
+  }
+
+  private static RequestStack.@Nullable Captured capture() {
+    RequestStack stack = REQUEST_THREADLOCAL.get();
+    if (stack == null) {
+      return null;
+    }
+    return stack.capture();
+  }
+
+  /**
+   * Installs the captured requests on the current thread, with a separate memo store
+   * as the memo store of the capturing thread is not thread-safe. Includes profiled on the current thread
+   * are added to the call tree of the capturing thread. If the captured request has already completed,
+   * an empty request stack is installed instead, as the request objects may already be recycled.
+   */
+  private static @Nullable RequestStack install(RequestStack.@NotNull Captured captured) {
+    RequestStack previous = REQUEST_THREADLOCAL.get();
+    REQUEST_THREADLOCAL.set(captured.isCompleted() ? new RequestStack() : new RequestStack(captured));
+    return previous;
+  }
+
+  private static void restore(@Nullable RequestStack previous) {
+    if (previous == null) {
+      REQUEST_THREADLOCAL.remove();
+    }
     else {
-      return stack.peek();
+      REQUEST_THREADLOCAL.set(previous);
     }
   }
 
@@ -0,0 +1,165 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request.impl;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.wcm.sling.commons.request.RequestMemoKey;
+
+/**
+ * Stack of nested requests processed by a thread, together with the memo store of the outermost request.
+ * Not thread-safe, only accessed from the owning thread.
+ */
+final class RequestStack {
+
+  private final ArrayDeque<SlingHttpServletRequest> requests;
+  private Map<RequestMemoKey<?>, Object> memo;
+  private IncludeProfiler.Node profileNode;
+  // set when processing of the outermost request ends, shared with all captured snapshots of that request
+  private AtomicBoolean completed;
+
+  RequestStack() {
+    this.requests = new ArrayDeque<>(4);
+  }
+
+  /**
+   * @param captured Requests and profiler call tree node captured from another thread
+   */
+  RequestStack(@NotNull Captured captured) {
+    this.requests = new ArrayDeque<>(captured.requests.length + 2);
+    for (SlingHttpServletRequest request : captured.requests) {
+      requests.push(request);
+    }
+    this.profileNode = captured.profileNode;
+    this.completed = captured.completed;
+  }
+
+  void push(@NotNull SlingHttpServletRequest request) {
+    if (requests.isEmpty()) {
+      completed = new AtomicBoolean();
+    }
+    requests.push(request);
+  }
+
+  /**
+   * Removes the innermost request. The memo store is discarded and captured snapshots are marked as completed
+   * when the outermost request is removed.
+   */
+  void pop() {
+    requests.pop();
+    if (requests.isEmpty()) {
+      memo = null;
+      completed.set(true);
+      completed = null;
+    }
+  }
+
+  @Nullable
+  SlingHttpServletRequest peek() {
+    return requests.peek();
+  }
+
+  /**
+   * @return Requests and profiler call tree node to be installed on another thread, or null if empty
+   */
+  @Nullable
+  Captured capture() {
+    if (requests.isEmpty()) {
+      return null;
+    }
+    SlingHttpServletRequest[] captured = new SlingHttpServletRequest[requests.size()];
+    int index = captured.length;
+    for (SlingHttpServletRequest request : requests) {
+      captured[--index] = request;
+    }
+    return new Captured(captured, profileNode, completed);
+  }
+
+  @SuppressWarnings("unchecked")
+  <T> T computeIfAbsent(@NotNull RequestMemoKey<T> key, @NotNull Supplier<T> supplier) {
+    if (requests.isEmpty()) {
+      return supplier.get();
+    }
+    if (memo == null) {
+      memo = new HashMap<>();
+    }
+    T value = (T)memo.get(key);
+    if (value == null) {
+      // not using Map.computeIfAbsent to allow the supplier to access the memo store as well
+      value = supplier.get();
+      if (value != null) {
+        memo.put(key, value);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * @return Call tree node of the innermost include currently recorded by the include profiler
+   */
+  @Nullable
+  IncludeProfiler.Node getProfileNode() {
+    return profileNode;
+  }
+
+  void setProfileNode(@Nullable IncludeProfiler.Node profileNode) {
+    this.profileNode = profileNode;
+  }
+
+  /**
+   * Immutable snapshot of a request stack, without the memo store.
+   * Includes on the thread the snapshot is installed on are recorded as children of the captured call tree node.
+   */
+  static final class Captured {
+
+    private final SlingHttpServletRequest[] requests;
+    private final IncludeProfiler.Node profileNode;
+    private final AtomicBoolean completed;
+
+    /**
+     * @param requests Requests, outermost first
+     * @param profileNode Call tree node of the innermost include, or null if profiling is disabled
+     * @param completed Completion flag of the outermost request
+     */
+    Captured(SlingHttpServletRequest @NotNull [] requests, @Nullable IncludeProfiler.Node profileNode,
+        @NotNull AtomicBoolean completed) {
+      this.requests = requests;
+      this.profileNode = profileNode;
+      this.completed = completed;
+    }
+
+    /**
+     * @return true if processing of the captured outermost request has ended
+     */
+    boolean isCompleted() {
+      return completed.get();
+    }
+
+  }
+
+}
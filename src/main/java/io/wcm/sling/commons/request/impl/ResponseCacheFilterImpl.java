@@ -0,0 +1,331 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request.impl;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.felix.inventory.Format;
+import org.apache.felix.inventory.InventoryPrinter;
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.SlingHttpServletResponse;
+import org.apache.sling.api.request.RequestPathInfo;
+import org.apache.sling.api.resource.observation.ExternalResourceChangeListener;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.wcm.sling.commons.caservice.ContextAwareServiceResolver;
+import io.wcm.sling.commons.request.QueryStringBuilder;
+import io.wcm.sling.commons.request.QueryStringParser;
+
+/**
+ * Caches complete responses of anonymous GET requests without cookies or credentials in memory.
+ * Responses setting cookies, varying by request headers or marked as private are not cached.
+ * Responses are cached separately per scheme, host and port.
+ * Cached responses are invalidated on any resource change below the configured invalidation paths, and on any change
+ * of the context-aware services. Changes outside the invalidation paths are only picked up when cached responses
+ * expire after the configured time. Only active if a configuration is present.
+ * Hit and miss statistics are available via inventory printer.
+ */
+@Component(service = { Filter.class, ResourceChangeListener.class, InventoryPrinter.class },
+    configurationPolicy = ConfigurationPolicy.REQUIRE,
+    property = {
+        "sling.filter.scope=REQUEST",
+        InventoryPrinter.NAME + "=wcmio-response-cache",
+        InventoryPrinter.TITLE + "=wcm.io Response Cache",
+        InventoryPrinter.FORMAT + "=TEXT"
+    })
+@Designate(ocd = ResponseCacheFilterImpl.Config.class)
+public final class ResponseCacheFilterImpl implements Filter, ResourceChangeListener, ExternalResourceChangeListener, InventoryPrinter {
+
+  @ObjectClassDefinition(
+      name = "wcm.io Response Cache Filter",
+      description = "Caches complete responses of anonymous GET requests without cookies or credentials in memory. "
+          + "Request headers like Accept or Accept-Language are not part of the cache key, responses depending on them "
+          + "have to send a Vary header which excludes them from caching.")
+  @interface Config {
+
+    @AttributeDefinition(
+        name = "Include Paths",
+        description = "Resource paths for which responses are cached.")
+    String[] includePaths() default { "/content" };
+
+    @AttributeDefinition(
+        name = "Invalidation Paths",
+        description = "Resource changes below these paths invalidate the whole cache. Should include all paths "
+            + "the cached responses depend on, e.g. content, context-aware configuration and components. "
+            + "Changes outside these paths are only picked up when cached responses expire.")
+    String[] resource_paths() default { "/content", "/conf", "/apps", "/libs" };
+
+    @AttributeDefinition(
+        name = "Exclude Paths",
+        description = "Resource paths below the include paths for which responses are not cached.")
+    String[] excludePaths() default {};
+
+    @AttributeDefinition(
+        name = "Max. Cache Size",
+        description = "Max. total size of the cached responses in bytes.")
+    long maxWeight() default 50L * 1024 * 1024;
+
+    @AttributeDefinition(
+        name = "Max. Response Size",
+        description = "Max. body size of a single response in bytes. Larger responses are not cached.")
+    int maxResponseSize() default 1024 * 1024;
+
+    @AttributeDefinition(
+        name = "Expire After Write",
+        description = "Time in seconds after which a cached response expires. 0 disables time-based expiry.")
+    long expireAfterWriteSeconds() default 300;
+
+    @AttributeDefinition(
+        name = "Hosts",
+        description = "Host names for which responses are cached. Requests for other hosts are not cached. "
+            + "If empty, responses for all hosts are cached. Responses are always cached separately per host.")
+    String[] hosts() default {};
+
+  }
+
+  private static final String ANONYMOUS_USER = "anonymous";
+  private static final String HEADER_COOKIE = "Cookie";
+  private static final String HEADER_AUTHORIZATION = "Authorization";
+
+  @Reference(policyOption = ReferencePolicyOption.GREEDY)
+  private ContextAwareServiceResolver contextAwareServiceResolver;
+
+  private List<String> includePaths;
+  private List<String> excludePaths;
+  private List<String> invalidationPaths;
+  private Set<String> hosts;
+  private int maxResponseSize;
+  private Cache<String, CachedResponse> cache;
+  private final AtomicLong resourceGeneration = new AtomicLong();
+  private final LongAdder notCacheableCount = new LongAdder();
+
+  @Activate
+  private void activate(Config config) {
+    this.includePaths = toPathList(config.includePaths());
+    this.invalidationPaths = toPathList(config.resource_paths());
+    this.excludePaths = toPathList(config.excludePaths());
+    this.hosts = config.hosts() != null
+        ? Arrays.stream(config.hosts())
+            .filter(StringUtils::isNotBlank)
+            .map(host -> host.trim().toLowerCase(Locale.ENGLISH))
+            .collect(Collectors.toUnmodifiableSet())
+        : Set.of();
+    this.maxResponseSize = config.maxResponseSize();
+    Caffeine<String, CachedResponse> builder = Caffeine.newBuilder()
+        .maximumWeight(config.maxWeight())
+        .weigher((String key, CachedResponse value) -> key.length() * 2 + value.getWeight())
+        .recordStats();
+    if (config.expireAfterWriteSeconds() > 0) {
+      builder.expireAfterWrite(config.expireAfterWriteSeconds(), TimeUnit.SECONDS);
+    }
+    this.cache = builder.build();
+  }
+
+  private static List<String> toPathList(String @Nullable [] paths) {
+    if (paths == null) {
+      return List.of();
+    }
+    return Arrays.stream(paths)
+        .filter(StringUtils::isNotBlank)
+        .map(path -> StringUtils.removeEnd(path, "/"))
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+    if (!(request instanceof SlingHttpServletRequest && response instanceof SlingHttpServletResponse)
+        || !isCacheable((SlingHttpServletRequest)request)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    SlingHttpServletRequest slingRequest = (SlingHttpServletRequest)request;
+    SlingHttpServletResponse slingResponse = (SlingHttpServletResponse)response;
+
+    // read change stamps before rendering - a concurrent change always leads to an invalid entry
+    long currentResourceGeneration = resourceGeneration.get();
+    long currentServiceGeneration = contextAwareServiceResolver.getServiceChangeGeneration();
+
+    String key = buildKey(slingRequest);
+    CachedResponse cachedResponse = cache.getIfPresent(key);
+    if (cachedResponse != null) {
+      if (cachedResponse.isValid(currentResourceGeneration, currentServiceGeneration)) {
+        cachedResponse.writeTo(slingResponse);
+        return;
+      }
+      cache.invalidate(key);
+    }
+
+    CapturingResponseWrapper capturingResponse = new CapturingResponseWrapper(slingResponse, maxResponseSize);
+    chain.doFilter(request, capturingResponse);
+    CachedResponse newResponse = capturingResponse.getCachedResponse(currentResourceGeneration, currentServiceGeneration);
+    if (newResponse != null) {
+      cache.put(key, newResponse);
+    }
+    else {
+      notCacheableCount.increment();
+    }
+  }
+
+  private boolean isCacheable(@NotNull SlingHttpServletRequest request) {
+    if (!StringUtils.equals(request.getMethod(), "GET")) {
+      return false;
+    }
+    String user = request.getRemoteUser();
+    if (user != null && !StringUtils.equals(user, ANONYMOUS_USER)) {
+      return false;
+    }
+    // requests with cookies or credentials may get personalized responses
+    if (request.getHeader(HEADER_COOKIE) != null || request.getHeader(HEADER_AUTHORIZATION) != null
+        || ArrayUtils.isNotEmpty(request.getCookies())) {
+      return false;
+    }
+    // host header is controlled by the client, only accept configured hosts to protect the cache
+    if (!hosts.isEmpty() && !hosts.contains(StringUtils.lowerCase(request.getServerName(), Locale.ENGLISH))) {
+      return false;
+    }
+    return isIncluded(request.getRequestPathInfo().getResourcePath());
+  }
+
+  boolean isIncluded(@Nullable String path) {
+    return path != null
+        && matchesAny(path, includePaths)
+        && !matchesAny(path, excludePaths);
+  }
+
+  private static boolean matchesAny(@NotNull String path, @NotNull List<String> paths) {
+    for (String item : paths) {
+      if (path.startsWith(item)
+          && (path.length() == item.length() || path.charAt(item.length()) == '/' || item.isEmpty())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Builds cache key from scheme, host, port, resource path, selectors, extension, suffix and canonicalized query string.
+   * @param request Request
+   * @return Cache key
+   */
+  static @NotNull String buildKey(@NotNull SlingHttpServletRequest request) {
+    RequestPathInfo pathInfo = request.getRequestPathInfo();
+    StringBuilder key = new StringBuilder(128);
+    key.append(request.getScheme()).append("://")
+        .append(StringUtils.lowerCase(request.getServerName(), Locale.ENGLISH))
+        .append(':').append(request.getServerPort());
+    key.append(pathInfo.getResourcePath());
+    if (pathInfo.getSelectorString() != null) {
+      key.append('.').append(pathInfo.getSelectorString());
+    }
+    if (pathInfo.getExtension() != null) {
+      key.append('.').append(pathInfo.getExtension());
+    }
+    if (pathInfo.getSuffix() != null) {
+      key.append(pathInfo.getSuffix());
+    }
+    String queryString = request.getQueryString();
+    if (StringUtils.isNotEmpty(queryString)) {
+      QueryStringParser parser = QueryStringParser.parse(queryString);
+      QueryStringBuilder builder = new QueryStringBuilder();
+      for (int i = 0; i < parser.size(); i++) {
+        builder.param(parser.getName(i), parser.getValue(i));
+      }
+      String canonical = builder.buildCanonical();
+      if (canonical != null) {
+        key.append('?').append(canonical);
+      }
+    }
+    return key.toString();
+  }
+
+  @Override
+  public void onChange(@NotNull List<ResourceChange> changes) {
+    // only changes below the invalidation paths are observed. each of them may affect any cached response,
+    // e.g. via references, navigation or configuration, so the whole cache is invalidated.
+    if (!changes.isEmpty()) {
+      resourceGeneration.incrementAndGet();
+      cache.invalidateAll();
+    }
+  }
+
+  @Override
+  public void print(PrintWriter pw, Format format, boolean isZip) {
+    if (format != Format.TEXT) {
+      return;
+    }
+    CacheStats stats = cache.stats();
+    pw.println();
+    pw.println("Include paths: " + StringUtils.join(includePaths, ", "));
+    pw.println("Exclude paths: " + StringUtils.join(excludePaths, ", "));
+    pw.println("Invalidation paths: " + StringUtils.join(invalidationPaths, ", "));
+    pw.println();
+    pw.println("Cached responses: " + cache.estimatedSize());
+    pw.println("Hits: " + stats.hitCount());
+    pw.println("Misses: " + stats.missCount());
+    pw.println(String.format(Locale.ENGLISH, "Hit rate: %.1f%%", stats.hitRate() * 100));
+    pw.println("Evictions: " + stats.evictionCount());
+    pw.println("Not cacheable responses: " + notCacheableCount.sum());
+    pw.println("Resource change invalidations: " + resourceGeneration.get());
+  }
+
+  @Override
+  public void init(FilterConfig filterConfig) throws ServletException {
+    // nothing to do
+  }
+
+  @Override
+  public void destroy() {
+    // nothing to do
+  }
+
+}
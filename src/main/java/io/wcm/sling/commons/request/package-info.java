@@ -20,5 +20,5 @@
 /**
  * Helper classes for request handling.
  */
-@org.osgi.annotation.versioning.Version("1.1.1")
+@org.osgi.annotation.versioning.Version("1.2.0")
 package io.wcm.sling.commons.request;
@@ -0,0 +1,249 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.resource;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Compact immutable map with string keys backed by a flat array of alternating keys and values in insertion order.
+ * Small maps are looked up by linear scan, larger maps get an additional open-addressing hash index.
+ * A later entry with the same key replaces the value of the earlier entry, keeping its position.
+ */
+final class ArrayMap extends AbstractMap<String, Object> {
+
+  /**
+   * Max. number of entries looked up by linear scan.
+   */
+  static final int MAX_LINEAR_SIZE = 8;
+
+  static final ArrayMap EMPTY = new ArrayMap(new Object[0], 0, null);
+
+  private final Object[] keysAndValues;
+  private final int size;
+  // open-addressing table with entry index + 1, 0 marks an empty slot
+  private final int[] index;
+  private Set<Entry<String, Object>> entrySet;
+
+  private ArrayMap(Object @NotNull [] keysAndValues, int size, int[] index) {
+    this.keysAndValues = keysAndValues;
+    this.size = size;
+    this.index = index;
+  }
+
+  /**
+   * @param keysAndValues Alternating keys and values. The array is not copied if it contains no duplicate keys.
+   * @return Map
+   */
+  static @NotNull ArrayMap of(Object @NotNull... keysAndValues) {
+    int count = keysAndValues.length / 2;
+    if (count == 0) {
+      return EMPTY;
+    }
+    if (count <= MAX_LINEAR_SIZE) {
+      int size = 0;
+      Object[] result = keysAndValues;
+      for (int i = 0; i < count; i++) {
+        Object key = Objects.requireNonNull(keysAndValues[i * 2], "key");
+        int existing = linearIndexOf(result, size, key);
+        if (existing >= 0) {
+          // duplicate key: copy to keep caller's array unchanged
+          if (result == keysAndValues) {
+            result = Arrays.copyOf(keysAndValues, keysAndValues.length);
+          }
+          result[existing * 2 + 1] = keysAndValues[i * 2 + 1];
+        }
+        else {
+          if (result != keysAndValues || size != i) {
+            if (result == keysAndValues) {
+              result = Arrays.copyOf(keysAndValues, keysAndValues.length);
+            }
+            result[size * 2] = key;
+            result[size * 2 + 1] = keysAndValues[i * 2 + 1];
+          }
+          size++;
+        }
+      }
+      return new ArrayMap(result, size, null);
+    }
+    return hashed(keysAndValues, count);
+  }
+
+  /**
+   * @param map Map
+   * @return Map with the entries of the given map
+   */
+  static @NotNull ArrayMap copyOf(@NotNull Map<String, Object> map) {
+    Object[] keysAndValues = new Object[map.size() * 2];
+    int i = 0;
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      keysAndValues[i++] = entry.getKey();
+      keysAndValues[i++] = entry.getValue();
+    }
+    return of(keysAndValues);
+  }
+
+  private static @NotNull ArrayMap hashed(Object @NotNull [] keysAndValues, int count) {
+    int[] index = new int[tableSize(count)];
+    int mask = index.length - 1;
+    Object[] result = new Object[count * 2];
+    int size = 0;
+    for (int i = 0; i < count; i++) {
+      Object key = Objects.requireNonNull(keysAndValues[i * 2], "key");
+      Object value = keysAndValues[i * 2 + 1];
+      int slot = spread(key.hashCode()) & mask;
+      while (true) {
+        int entry = index[slot];
+        if (entry == 0) {
+          index[slot] = size + 1;
+          result[size * 2] = key;
+          result[size * 2 + 1] = value;
+          size++;
+          break;
+        }
+        if (key.equals(result[(entry - 1) * 2])) {
+          result[(entry - 1) * 2 + 1] = value;
+          break;
+        }
+        slot = (slot + 1) & mask;
+      }
+    }
+    return new ArrayMap(result, size, index);
+  }
+
+  /**
+   * @return Power of two table size keeping the load factor at or below 0.5
+   */
+  static int tableSize(int count) {
+    return Integer.highestOneBit(Math.max(count, 1) * 2 - 1) << 1;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static int linearIndexOf(Object @NotNull [] keysAndValues, int size, @NotNull Object key) {
+    for (int i = 0; i < size; i++) {
+      if (key.equals(keysAndValues[i * 2])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int indexOf(Object key) {
+    if (key == null) {
+      return -1;
+    }
+    if (index == null) {
+      return linearIndexOf(keysAndValues, size, key);
+    }
+    int mask = index.length - 1;
+    int slot = spread(key.hashCode()) & mask;
+    while (true) {
+      int entry = index[slot];
+      if (entry == 0) {
+        return -1;
+      }
+      if (key.equals(keysAndValues[(entry - 1) * 2])) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public Object get(Object key) {
+    int i = indexOf(key);
+    return i >= 0 ? keysAndValues[i * 2 + 1] : null;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    for (int i = 0; i < size; i++) {
+      if (Objects.equals(value, keysAndValues[i * 2 + 1])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Iterator<Entry<String, Object>> iterator() {
+      return new Iterator<Entry<String, Object>>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < size;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+          if (next >= size) {
+            throw new NoSuchElementException();
+          }
+          int i = next++;
+          return new SimpleImmutableEntry<>((String)keysAndValues[i * 2], keysAndValues[i * 2 + 1]);
+        }
+      };
+    }
+
+  }
+
+}
@@ -44,30 +44,41 @@ import org.osgi.annotation.versioning.ProviderType;
 @ProviderType
 public final class ImmutableValueMap implements ValueMap {
 
-  private final ValueMap map;
+  private static final ImmutableValueMap EMPTY = new ImmutableValueMap(ArrayMap.EMPTY);
 
-  /**
-   * @param map Value map
-   */
-  ImmutableValueMap(@NotNull ValueMap map) {
-    this.map = map;
-  }
+  private final Map<String, Object> map;
+  // value map used for type conversion
+  private final ValueMap converter;
 
   /**
-   * @param map Map
+   * @param map Unmodifiable map
    */
   ImmutableValueMap(@NotNull Map<String, Object> map) {
-    this.map = new ValueMapDecorator(map);
+    this.map = map;
+    this.converter = new ValueMapDecorator(map);
   }
 
   @Override
   public @Nullable <T> T get(@NotNull String name, @NotNull Class<T> type) {
-    return this.map.get(name, type);
+    Object value = this.map.get(name);
+    if (value == null) {
+      return null;
+    }
+    // no conversion required
+    if (type.isInstance(value)) {
+      return type.cast(value);
+    }
+    return converter.get(name, type);
   }
 
   @Override
+  @SuppressWarnings({ "unchecked", "null" })
   public @NotNull <T> T get(@NotNull String name, @NotNull T defaultValue) {
-    return this.map.get(name, defaultValue);
+    if (defaultValue == null) {
+      return (T)this.map.get(name);
+    }
+    T value = get(name, (Class<T>)defaultValue.getClass());
+    return value != null ? value : defaultValue;
   }
 
   @Override
@@ -107,7 +118,7 @@ public final class ImmutableValueMap implements ValueMap {
 
   @Override
   public Set<Entry<String, Object>> entrySet() {
-    return Collections.unmodifiableSet(this.map.entrySet());
+    return this.map.entrySet();
   }
 
   @Override
@@ -173,7 +184,7 @@ public final class ImmutableValueMap implements ValueMap {
    * @return ImmutableValueMap
    */
   public static @NotNull ImmutableValueMap of() {
-    return new ImmutableValueMap(ValueMap.EMPTY);
+    return EMPTY;
   }
 
   /**
@@ -186,9 +197,7 @@ public final class ImmutableValueMap implements ValueMap {
    * @return ImmutableValueMap
    */
   public static @NotNull ImmutableValueMap of(@NotNull String k1, @NotNull Object v1) {
-    Map<String, Object> map = new LinkedHashMap<>();
-    map.put(k1, v1);
-    return new ImmutableValueMap(Collections.unmodifiableMap(map));
+    return new ImmutableValueMap(ArrayMap.of(k1, v1));
   }
 
   /**
@@ -202,10 +211,7 @@ public final class ImmutableValueMap implements ValueMap {
    */
   public static @NotNull ImmutableValueMap of(@NotNull String k1, @NotNull Object v1,
       @NotNull String k2, @NotNull Object v2) {
-    Map<String, Object> map = new LinkedHashMap<>();
-    map.put(k1, v1);
-    map.put(k2, v2);
-    return new ImmutableValueMap(Collections.unmodifiableMap(map));
+    return new ImmutableValueMap(ArrayMap.of(k1, v1, k2, v2));
   }
 
   /**
@@ -223,11 +229,7 @@ public final class ImmutableValueMap implements ValueMap {
       @NotNull String k1, @NotNull Object v1,
       @NotNull String k2, @NotNull Object v2,
       @NotNull String k3, @NotNull Object v3) {
-    Map<String, Object> map = new LinkedHashMap<>();
-    map.put(k1, v1);
-    map.put(k2, v2);
-    map.put(k3, v3);
-    return new ImmutableValueMap(Collections.unmodifiableMap(map));
+    return new ImmutableValueMap(ArrayMap.of(k1, v1, k2, v2, k3, v3));
   }
 
   /**
@@ -249,12 +251,7 @@ public final class ImmutableValueMap implements ValueMap {
       @NotNull String k2, @NotNull Object v2,
       @NotNull String k3, @NotNull Object v3,
       @NotNull String k4, @NotNull Object v4) {
-    Map<String, Object> map = new LinkedHashMap<>();
-    map.put(k1, v1);
-    map.put(k2, v2);
-    map.put(k3, v3);
-    map.put(k4, v4);
-    return new ImmutableValueMap(Collections.unmodifiableMap(map));
+    return new ImmutableValueMap(ArrayMap.of(k1, v1, k2, v2, k3, v3, k4, v4));
   }
 
   /**
@@ -279,13 +276,7 @@ public final class ImmutableValueMap implements ValueMap {
       @NotNull String k3, @NotNull Object v3,
       @NotNull String k4, @NotNull Object v4,
       @NotNull String k5, @NotNull Object v5) {
-    Map<String, Object> map = new LinkedHashMap<>();
-    map.put(k1, v1);
-    map.put(k2, v2);
-    map.put(k3, v3);
-    map.put(k4, v4);
-    map.put(k5, v5);
-    return new ImmutableValueMap(Collections.unmodifiableMap(map));
+    return new ImmutableValueMap(ArrayMap.of(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5));
   }
 
   // looking for of() with > 5 entries? Use the builder instead.
@@ -313,6 +304,9 @@ public final class ImmutableValueMap implements ValueMap {
    * @throws NullPointerException if any key or value in {@code map} is null
    */
   public static @NotNull ImmutableValueMap copyOf(@NotNull Map<String, Object> map) {
+    if (map instanceof ImmutableValueMap) {
+      return (ImmutableValueMap)map;
+    }
     return new ImmutableValueMap(Collections.unmodifiableMap(map));
   }
 
@@ -367,7 +361,7 @@ public final class ImmutableValueMap implements ValueMap {
         return ImmutableValueMap.of();
       }
       else {
-        return new ImmutableValueMap(map);
+        return new ImmutableValueMap(ArrayMap.copyOf(map));
       }
     }
   }
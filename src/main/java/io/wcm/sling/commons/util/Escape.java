@@ -19,9 +19,9 @@
  */
 package io.wcm.sling.commons.util;
 
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -37,31 +37,163 @@ import org.osgi.annotation.versioning.ProviderType;
 public final class Escape {
   private static final char LIKE_ESCAPE_CHARACTER = '\\';
   private static final Set<Character> LIKE_SPECIAL_CHARACTERS = Set.of('%', '_');
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+  private static final boolean[] URL_SAFE_CHARS = new boolean[128];
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      URL_SAFE_CHARS[c] = true;
+      URL_SAFE_CHARS[Character.toUpperCase(c)] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      URL_SAFE_CHARS[c] = true;
+    }
+    URL_SAFE_CHARS['.'] = true;
+    URL_SAFE_CHARS['-'] = true;
+    URL_SAFE_CHARS['*'] = true;
+    URL_SAFE_CHARS['_'] = true;
+  }
 
   private Escape() {
     // Utility class - no instancing allowed
   }
 
   /**
-   * Applies URL-Encoding to the given parameter name or value. Uses {@link URLEncoder#encode(String, String)} with
-   * UTF-8 character set, while avoiding the need to catch the UnsupportedEncodingException.
+   * Applies URL-Encoding to the given parameter name or value. Produces the same result as
+   * {@link URLEncoder#encode(String, String)} with UTF-8 character set, while avoiding the need to catch the
+   * UnsupportedEncodingException. Values that need no encoding are returned unchanged without copying.
    * @param value the parameter name or value to encode
    * @return URL-encoded string - or empty string if the specified value was null
-   * @throws RuntimeException in the very unlikely case that UTF-8 is not supported on the current system
    */
-  @SuppressWarnings("java:S112") // allow generic exception
   public static @NotNull String urlEncode(@Nullable String value) {
     if (value == null) {
       return "";
     }
+    int index = indexOfUrlEncodingRequired(value);
+    if (index < 0) {
+      return value;
+    }
+    StringBuilder result = new StringBuilder(value.length() + 16);
+    result.append(value, 0, index);
+    appendUrlEncoded(value, index, result);
+    return result.toString();
+  }
+
+  /**
+   * Applies URL-Encoding to the given parameter name or value and appends the result to the given target.
+   * Produces the same result as {@link #urlEncode(String)} without creating intermediate strings.
+   * @param value the parameter name or value to encode. Null is treated as empty string.
+   * @param target Target to append encoded value to
+   */
+  public static void urlEncode(@Nullable CharSequence value, @NotNull StringBuilder target) {
+    if (value == null) {
+      return;
+    }
+    int index = indexOfUrlEncodingRequired(value);
+    if (index < 0) {
+      target.append(value);
+    }
+    else {
+      target.append(value, 0, index);
+      appendUrlEncoded(value, index, target);
+    }
+  }
+
+  /**
+   * Applies URL-Encoding to the given parameter name or value and appends the result to the given target.
+   * Produces the same result as {@link #urlEncode(String)} without creating intermediate strings.
+   * @param value the parameter name or value to encode. Null is treated as empty string.
+   * @param target Target to append encoded value to
+   * @throws IOException if appending to the target fails
+   */
+  public static void urlEncode(@Nullable CharSequence value, @NotNull Appendable target) throws IOException {
+    if (target instanceof StringBuilder) {
+      urlEncode(value, (StringBuilder)target);
+      return;
+    }
+    if (value == null) {
+      return;
+    }
+    int index = indexOfUrlEncodingRequired(value);
+    if (index < 0) {
+      target.append(value);
+    }
+    else {
+      target.append(value, 0, index);
+      appendUrlEncoded(value, index, target);
+    }
+  }
+
+  /**
+   * @return Index of first char that needs URL-encoding, or -1 if none
+   */
+  private static int indexOfUrlEncodingRequired(@NotNull CharSequence value) {
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c >= URL_SAFE_CHARS.length || !URL_SAFE_CHARS[c]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static void appendUrlEncoded(@NotNull CharSequence value, int start, @NotNull StringBuilder target) {
     try {
-      return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+      appendUrlEncoded(value, start, (Appendable)target);
     }
-    catch (UnsupportedEncodingException ex) {
-      throw new RuntimeException(ex);
+    catch (IOException ex) {
+      // never thrown by StringBuilder
+      throw new UncheckedIOException(ex);
     }
   }
 
+  /**
+   * Encodes chars from start index in the same way as {@link URLEncoder}: space is converted to '+', all chars
+   * except a-z, A-Z, 0-9, '.', '-', '*' and '_' are converted to percent-encoded UTF-8 bytes.
+   * Unpaired surrogate chars are encoded as '?'.
+   */
+  private static void appendUrlEncoded(@NotNull CharSequence value, int start, @NotNull Appendable target) throws IOException {
+    int length = value.length();
+    int i = start;
+    while (i < length) {
+      char c = value.charAt(i++);
+      if (c < URL_SAFE_CHARS.length && URL_SAFE_CHARS[c]) {
+        target.append(c);
+      }
+      else if (c == ' ') {
+        target.append('+');
+      }
+      else if (c < 0x80) {
+        appendPercentEncoded(c, target);
+      }
+      else if (c < 0x800) {
+        appendPercentEncoded(0xC0 | (c >> 6), target);
+        appendPercentEncoded(0x80 | (c & 0x3F), target);
+      }
+      else if (Character.isHighSurrogate(c) && i < length && Character.isLowSurrogate(value.charAt(i))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(i++));
+        appendPercentEncoded(0xF0 | (codePoint >> 18), target);
+        appendPercentEncoded(0x80 | ((codePoint >> 12) & 0x3F), target);
+        appendPercentEncoded(0x80 | ((codePoint >> 6) & 0x3F), target);
+        appendPercentEncoded(0x80 | (codePoint & 0x3F), target);
+      }
+      else if (Character.isSurrogate(c)) {
+        appendPercentEncoded('?', target);
+      }
+      else {
+        appendPercentEncoded(0xE0 | (c >> 12), target);
+        appendPercentEncoded(0x80 | ((c >> 6) & 0x3F), target);
+        appendPercentEncoded(0x80 | (c & 0x3F), target);
+      }
+    }
+  }
+
+  private static void appendPercentEncoded(int b, @NotNull Appendable target) throws IOException {
+    target.append('%')
+        .append(HEX_DIGITS[(b >> 4) & 0x0F])
+        .append(HEX_DIGITS[b & 0x0F]);
+  }
+
   /**
    * Creates a valid node name. Replaces all chars not in a-z, A-Z and 0-9 or '_' with '-' and converts all to lowercase.
    * @param value String to be labelized.
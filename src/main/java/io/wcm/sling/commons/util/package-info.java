@@ -20,5 +20,5 @@
 /**
  * Miscellaneous helper classes.
  */
-@org.osgi.annotation.versioning.Version("1.1")
+@org.osgi.annotation.versioning.Version("1.2")
 package io.wcm.sling.commons.util;
@@ -0,0 +1,60 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.caservice.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import io.wcm.sling.commons.caservice.impl.BudgetedCharSequence.MatchBudgetExceededException;
+
+class BudgetedCharSequenceTest {
+
+  private static final Pattern CONTENT_PATTERN = Pattern.compile("^/content(/.*)?$");
+  private static final Pattern CATASTROPHIC_PATTERN = Pattern.compile("^/content/(.*a){12}$");
+
+  @Test
+  void testMatches() {
+    assertTrue(BudgetedCharSequence.matches(CONTENT_PATTERN, "/content/test1"));
+    assertFalse(BudgetedCharSequence.matches(CONTENT_PATTERN, "/etc/test1"));
+    assertTrue(BudgetedCharSequence.matches(CATASTROPHIC_PATTERN, "/content/" + StringUtils.repeat('a', 12)));
+    assertFalse(BudgetedCharSequence.matches(CATASTROPHIC_PATTERN, "/content/" + StringUtils.repeat('a', 11)));
+  }
+
+  @Test
+  void testMatchesLongPath() {
+    String longPath = "/content/" + StringUtils.repeat("page/", 2000) + "jcr:content";
+    assertTrue(BudgetedCharSequence.matches(CONTENT_PATTERN, longPath));
+  }
+
+  @Test
+  @Timeout(10)
+  void testBudgetExceeded() {
+    String path = "/content/" + StringUtils.repeat('a', 30) + "!";
+    assertThrows(MatchBudgetExceededException.class, () -> BudgetedCharSequence.matches(CATASTROPHIC_PATTERN, path));
+  }
+
+}
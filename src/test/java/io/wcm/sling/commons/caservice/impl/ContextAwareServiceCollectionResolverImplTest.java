@@ -200,6 +200,21 @@ class ContextAwareServiceCollectionResolverImplTest {
     }
   }
 
+  @Test
+  void testWithPathPrefix() {
+    DummySpi contentDamPrefixImpl = testServices.addContentDamPrefixService();
+    try (ContextAwareServiceCollectionResolver<DummySpi, Void> underTest = contextAwareServiceResolver
+        .getCollectionResolver(testServices.getServices())) {
+
+      assertSame(contentDamPrefixImpl, underTest.resolve(context.create().resource("/content/dam/test1")));
+      assertSame(contentDamImpl, underTest.resolve(context.create().resource("/content/dam/exclude/test1")));
+      assertSame(contentImpl, underTest.resolve(context.create().resource("/content/dam2/test1")));
+
+      assertEquals(List.of(contentDamPrefixImpl, contentDamImpl, contentImpl),
+          underTest.resolveAll(context.create().resource("/content/dam/test2")).collect(Collectors.toList()));
+    }
+  }
+
   @Test
   void testWithPathPreProcessor() {
     context.registerService(PathPreprocessor.class, (path, resourceResolver) -> StringUtils.removeStart(path, "/pathprefix"));
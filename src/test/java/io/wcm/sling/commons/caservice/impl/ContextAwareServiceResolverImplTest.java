@@ -21,15 +21,20 @@ package io.wcm.sling.commons.caservice.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.resource.Resource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import io.wcm.sling.commons.caservice.ContextAwareServiceResolver;
@@ -77,6 +82,16 @@ class ContextAwareServiceResolverImplTest {
         underTest.resolveAll(DummySpi.class, context.create().resource("/content/dam/test2")).getServices().collect(Collectors.toList()));
   }
 
+  @Test
+  void testServiceChangeGeneration() {
+    underTest.resolve(DummySpi.class, null);
+    long generation = underTest.getServiceChangeGeneration();
+    assertEquals(generation, underTest.getServiceChangeGeneration());
+
+    testServices.addDefaultService();
+    assertTrue(underTest.getServiceChangeGeneration() > generation);
+  }
+
   @Test
   void testWithoutDefaultImpl() {
     assertSame(contentImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/test1")));
@@ -151,6 +166,40 @@ class ContextAwareServiceResolverImplTest {
         underTest.resolveAll(DummySpi.class, context.create().resource("/content/dam/test2")).getServices().collect(Collectors.toList()));
   }
 
+  @Test
+  void testWithPathPrefix() {
+    DummySpi contentDamPrefixImpl = testServices.addContentDamPrefixService();
+    DummySpi contentEnImpl = testServices.addContentPrefixAndRegexService();
+    testServices.addInvalidPrefixService();
+
+    assertSame(contentImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/test1")));
+    assertSame(contentSampleImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/sample/test1")));
+    assertSame(contentDamPrefixImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/dam")));
+    assertSame(contentDamPrefixImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/dam/test1")));
+    assertSame(contentDamImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/dam/exclude/test1")));
+    assertSame(contentDamPrefixImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/dam-legacy/test1")));
+    assertSame(contentImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/dam2/test1")));
+    assertSame(contentEnImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/sample/en/test1")));
+    assertNull(underTest.resolve(DummySpi.class, context.create().resource("/etc/en/test1")));
+    assertNull(underTest.resolve(DummySpi.class, null));
+
+    assertEquals(List.of(contentDamPrefixImpl, contentDamImpl, contentImpl),
+        underTest.resolveAll(DummySpi.class, context.create().resource("/content/dam/test2")).getServices().collect(Collectors.toList()));
+    assertEquals(List.of(contentEnImpl, contentDamPrefixImpl, contentDamImpl, contentImpl),
+        underTest.resolveAll(DummySpi.class, context.create().resource("/content/dam/en")).getServices().collect(Collectors.toList()));
+  }
+
+  @Test
+  @Timeout(10)
+  void testWithCatastrophicRegex() {
+    testServices.addCatastrophicRegexService();
+    String longPath = "/content/" + StringUtils.repeat('a', 30) + "!";
+
+    // service with excessive backtracking is ignored for this path
+    assertSame(contentImpl, underTest.resolve(DummySpi.class, context.create().resource(longPath)));
+    assertSame(contentImpl, underTest.resolve(DummySpi.class, context.resourceResolver().getResource(longPath)));
+  }
+
   @Test
   void testWithPathPreProcessor() {
     context.registerService(PathPreprocessor.class, (path, resourceResolver) -> StringUtils.removeStart(path, "/pathprefix"));
@@ -166,4 +215,57 @@ class ContextAwareServiceResolverImplTest {
         underTest.resolveAll(DummySpi.class, context.create().resource("/pathprefix/content/dam/test2")).getServices().collect(Collectors.toList()));
   }
 
+  @Test
+  void testResolveAllResolvesPathOnce() {
+    AtomicInteger count = new AtomicInteger();
+    context.registerService(PathPreprocessor.class, (path, resourceResolver) -> {
+      count.incrementAndGet();
+      return path;
+    });
+    underTest = context.registerInjectActivateService(new ContextAwareServiceResolverImpl(),
+        "hotContextPathsLearnMaxSize", 10);
+
+    ResolveAllResult<DummySpi> result = underTest.resolveAll(DummySpi.class, context.create().resource("/content/dam/test1"));
+    assertEquals(List.of(contentDamImpl, contentImpl), result.getServices().collect(Collectors.toList()));
+    assertNotNull(result.getCombinedKey());
+    assertEquals(1, count.get());
+  }
+
+  @Test
+  void testWithHotContextPaths() {
+    underTest = context.registerInjectActivateService(new ContextAwareServiceResolverImpl(),
+        "hotContextPaths", new String[] { "/content/sample/test1", "/content/dam/test1" });
+
+    assertSame(contentSampleImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/sample/test1")));
+    assertSame(contentDamImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/dam/test1")));
+    assertSame(contentImpl, underTest.resolve(DummySpi.class, context.create().resource("/content/test1")));
+    assertNull(underTest.resolve(DummySpi.class, context.create().resource("/etc/test1")));
+
+    // precomputed resolutions must reflect service changes
+    DummySpi defaultImpl = testServices.addDefaultService();
+    assertEquals(List.of(contentSampleImpl, contentImpl, defaultImpl),
+        underTest.resolveAll(DummySpi.class, context.resourceResolver().getResource("/content/sample/test1"))
+            .getServices().collect(Collectors.toList()));
+    assertEquals(List.of(contentDamImpl, contentImpl, defaultImpl),
+        underTest.resolveAll(DummySpi.class, context.resourceResolver().getResource("/content/dam/test1"))
+            .getServices().collect(Collectors.toList()));
+  }
+
+  @Test
+  void testWithLearnedHotContextPaths() {
+    underTest = context.registerInjectActivateService(new ContextAwareServiceResolverImpl(),
+        "hotContextPathsLearnMaxSize", 10);
+
+    Resource resource = context.create().resource("/content/sample/test1");
+    for (int i = 0; i < 3; i++) {
+      assertSame(contentSampleImpl, underTest.resolve(DummySpi.class, resource));
+    }
+
+    DummySpi defaultImpl = testServices.addDefaultService();
+    for (int i = 0; i < 3; i++) {
+      assertEquals(List.of(contentSampleImpl, contentImpl, defaultImpl),
+          underTest.resolveAll(DummySpi.class, resource).getServices().collect(Collectors.toList()));
+    }
+  }
+
 }
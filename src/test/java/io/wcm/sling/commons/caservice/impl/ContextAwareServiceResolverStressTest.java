@@ -0,0 +1,288 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.caservice.impl;
+
+import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_ACCEPTS_CONTEXT_PATH_EMPTY;
+import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_PATTERN;
+import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.osgi.framework.Constants.SERVICE_RANKING;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.SyntheticResource;
+import org.apache.sling.testing.mock.osgi.MapUtil;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+
+import io.wcm.sling.commons.caservice.ContextAwareServiceCollectionResolver;
+import io.wcm.sling.commons.caservice.ContextAwareServiceResolver;
+import io.wcm.sling.commons.caservice.ContextAwareServiceResolver.ResolveAllResult;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+
+/**
+ * Stress test for context-aware service resolution with many services, concurrent service registration changes
+ * and concurrent resolving threads. Checks correctness only, throughput is measured by
+ * the <code>ContextAwareServiceResolverBenchmark</code> in the <code>jmh</code> profile.
+ */
+@ExtendWith(AemContextExtension.class)
+@Timeout(value = 120, unit = TimeUnit.SECONDS)
+class ContextAwareServiceResolverStressTest {
+
+  private static final int SITE_COUNT = 500;
+  private static final int READER_THREADS = 8;
+  private static final int WRITER_THREADS = 3;
+  private static final long RUN_MILLIS = 300;
+  // pause between service changes of each writer thread, simulates a burst of bundle refreshes
+  private static final long CHURN_PAUSE_MILLIS = 1;
+
+  private static final String CHURN_PATH = "/content/churn";
+
+  private final AemContext context = new AemContext();
+
+  private final List<DummySpi> siteServices = new ArrayList<>();
+  private final SortedSet<ServiceReference<DummySpi>> serviceReferences = new ConcurrentSkipListSet<>(Collections.reverseOrder());
+  private DummySpi defaultService;
+
+  @BeforeEach
+  void setUp() {
+    // every second site uses path prefixes, the others regex patterns
+    for (int i = 0; i < SITE_COUNT; i++) {
+      String sitePath = getSitePath(i);
+      Object[] properties;
+      if (i % 2 == 0) {
+        properties = new Object[] { PROPERTY_CONTEXT_PATH_PREFIX, sitePath, SERVICE_RANKING, i };
+      }
+      else {
+        properties = new Object[] { PROPERTY_CONTEXT_PATH_PATTERN, "^" + sitePath + "(/.*)?$", SERVICE_RANKING, i };
+      }
+      DummySpi service = new DummySpiImpl(sitePath);
+      register(service, properties);
+      siteServices.add(service);
+    }
+    defaultService = new DummySpiImpl("default");
+    register(defaultService, SERVICE_RANKING, Integer.MIN_VALUE, PROPERTY_ACCEPTS_CONTEXT_PATH_EMPTY, true);
+  }
+
+  @Test
+  void testConcurrentResolve() throws Exception {
+    ContextAwareServiceResolver underTest = context.registerInjectActivateService(new ContextAwareServiceResolverImpl());
+    runStress(underTest, Executors.newFixedThreadPool(READER_THREADS));
+  }
+
+  @Test
+  void testConcurrentResolve_HotContextPaths() throws Exception {
+    ContextAwareServiceResolver underTest = context.registerInjectActivateService(new ContextAwareServiceResolverImpl(),
+        "hotContextPaths", new String[] { getSitePath(0) + "/page", getSitePath(1) + "/page" },
+        "hotContextPathsLearnMaxSize", 200);
+    runStress(underTest, Executors.newFixedThreadPool(READER_THREADS));
+  }
+
+  @Test
+  void testConcurrentResolve_VirtualThreads() throws Exception {
+    ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+    assumeTrue(virtualThreadExecutor != null, "Virtual threads not supported by Java runtime.");
+    ContextAwareServiceResolver underTest = context.registerInjectActivateService(new ContextAwareServiceResolverImpl());
+    runStress(underTest, virtualThreadExecutor);
+  }
+
+  @Test
+  void testConcurrentCollectionResolve() throws Exception {
+    ContextAwareServiceResolver resolver = context.registerInjectActivateService(new ContextAwareServiceResolverImpl());
+    try (ContextAwareServiceCollectionResolver<DummySpi, DummySpiDecorator> underTest = resolver.getCollectionResolver(
+        serviceReferences, (serviceReference, service) -> new DummySpiDecorator(service))) {
+
+      StressRun run = new StressRun();
+      run.start(Executors.newFixedThreadPool(READER_THREADS), () -> {
+        int site = ThreadLocalRandom.current().nextInt(SITE_COUNT);
+        Resource resource = resource(getSitePath(site) + "/page");
+        DummySpiDecorator decorated = underTest.resolveDecorated(resource);
+        assertSame(siteServices.get(site), decorated.getService());
+        List<DummySpi> all = underTest.resolveAllDecorated(resource)
+            .map(DummySpiDecorator::getService)
+            .collect(Collectors.toList());
+        assertEquals(List.of(siteServices.get(site), defaultService), all);
+      });
+      run.churn(() -> {
+        DummySpi churnService = new DummySpiImpl("churn");
+        ServiceRegistration<DummySpi> registration = register(churnService,
+            PROPERTY_CONTEXT_PATH_PREFIX, CHURN_PATH, SERVICE_RANKING, ThreadLocalRandom.current().nextInt());
+        serviceReferences.remove(registration.getReference());
+        registration.unregister();
+      });
+      run.await();
+
+      DummySpi finalService = new DummySpiImpl("final");
+      register(finalService, PROPERTY_CONTEXT_PATH_PREFIX, CHURN_PATH, SERVICE_RANKING, 1);
+      assertSame(finalService, underTest.resolve(resource(CHURN_PATH + "/page")));
+    }
+  }
+
+  private void runStress(ContextAwareServiceResolver underTest, ExecutorService readerExecutor) throws Exception {
+    // open service tracker before the churn phase - the OSGi service tracker may keep a service that is
+    // registered and unregistered while processing the initial service references in open()
+    assertSame(defaultService, underTest.resolve(DummySpi.class, null));
+
+    StressRun run = new StressRun();
+    run.start(readerExecutor, () -> {
+      int site = ThreadLocalRandom.current().nextInt(SITE_COUNT);
+      Resource resource = resource(getSitePath(site) + "/page");
+      assertSame(siteServices.get(site), underTest.resolve(DummySpi.class, resource));
+      ResolveAllResult<DummySpi> result = underTest.resolveAll(DummySpi.class, resource);
+      assertEquals(List.of(siteServices.get(site), defaultService), result.getServices().collect(Collectors.toList()));
+      assertTrue(result.getCombinedKey().contains(getSitePath(site)), "combined key");
+      assertSame(defaultService, underTest.resolve(DummySpi.class, null));
+    });
+    run.churn(() -> {
+      ServiceRegistration<DummySpi> registration = register(new DummySpiImpl("churn"),
+          PROPERTY_CONTEXT_PATH_PREFIX, CHURN_PATH, SERVICE_RANKING, ThreadLocalRandom.current().nextInt());
+      serviceReferences.remove(registration.getReference());
+      registration.unregister();
+    });
+    run.await();
+
+    // changes after the churn phase have to be visible to all threads
+    assertSame(defaultService, resolveInNewThread(underTest, CHURN_PATH + "/page"));
+    DummySpi finalService = new DummySpiImpl("final");
+    register(finalService, PROPERTY_CONTEXT_PATH_PREFIX, CHURN_PATH, SERVICE_RANKING, 1);
+    assertSame(finalService, resolveInNewThread(underTest, CHURN_PATH + "/page"));
+  }
+
+  private static @Nullable DummySpi resolveInNewThread(ContextAwareServiceResolver resolver, String path) throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      return executor.submit(() -> resolver.resolve(DummySpi.class, resource(path))).get();
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  private static String getSitePath(int site) {
+    return "/content/site" + site;
+  }
+
+  private static Resource resource(String path) {
+    return new SyntheticResource(null, path, null);
+  }
+
+  @SuppressWarnings("null")
+  private ServiceRegistration<DummySpi> register(DummySpi service, Object... properties) {
+    ServiceRegistration<DummySpi> registration = context.bundleContext().registerService(DummySpi.class, service,
+        MapUtil.toDictionary(properties));
+    serviceReferences.add(registration.getReference());
+    return registration;
+  }
+
+  private static @Nullable ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+    catch (ReflectiveOperationException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Runs reader tasks in a loop on multiple threads and churn tasks on writer threads for a fixed duration,
+   * collecting all failures.
+   */
+  private static final class StressRun {
+
+    private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicLong resolveCount = new AtomicLong();
+    private final AtomicLong churnCount = new AtomicLong();
+    private final long deadline = System.currentTimeMillis() + RUN_MILLIS;
+    private ExecutorService readerExecutor;
+    private ExecutorService writerExecutor;
+
+    void start(ExecutorService executor, Runnable readerTask) {
+      this.readerExecutor = executor;
+      for (int i = 0; i < READER_THREADS; i++) {
+        executor.execute(() -> loop(readerTask, resolveCount, 0));
+      }
+    }
+
+    void churn(Runnable writerTask) {
+      this.writerExecutor = Executors.newFixedThreadPool(WRITER_THREADS);
+      for (int i = 0; i < WRITER_THREADS; i++) {
+        writerExecutor.execute(() -> loop(writerTask, churnCount, CHURN_PAUSE_MILLIS));
+      }
+    }
+
+    private void loop(Runnable task, AtomicLong counter, long pauseMillis) {
+      try {
+        while (System.currentTimeMillis() < deadline && failures.isEmpty()) {
+          task.run();
+          counter.incrementAndGet();
+          if (pauseMillis > 0) {
+            Thread.sleep(pauseMillis);
+          }
+        }
+      }
+      catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      catch (Throwable ex) {
+        failures.add(ex);
+      }
+    }
+
+    void await() throws Exception {
+      readerExecutor.shutdown();
+      writerExecutor.shutdown();
+      assertTrue(readerExecutor.awaitTermination(60, TimeUnit.SECONDS), "readers terminated");
+      assertTrue(writerExecutor.awaitTermination(60, TimeUnit.SECONDS), "writers terminated");
+      if (!failures.isEmpty()) {
+        Throwable failure = failures.peek();
+        if (failure instanceof Error) {
+          throw (Error)failure;
+        }
+        throw new AssertionError(failure);
+      }
+      assertTrue(resolveCount.get() > 0, "no resolves");
+      assertTrue(churnCount.get() > 0, "no service changes");
+    }
+
+  }
+
+}
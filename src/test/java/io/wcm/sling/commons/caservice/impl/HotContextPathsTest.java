@@ -0,0 +1,62 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.caservice.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class HotContextPathsTest {
+
+  @Test
+  void testDisabled() {
+    HotContextPaths underTest = new HotContextPaths(null, 0);
+    assertFalse(underTest.isEnabled());
+    assertFalse(underTest.record("/content/a"));
+    assertEquals(Set.of(), underTest.getPaths());
+  }
+
+  @Test
+  void testConfigured() {
+    HotContextPaths underTest = new HotContextPaths(new String[] { "/content/a", "", "/content/b" }, 0);
+    assertTrue(underTest.isEnabled());
+    assertTrue(underTest.record("/content/a"));
+    assertFalse(underTest.record("/content/c"));
+    assertFalse(underTest.record("/content/c"));
+    assertFalse(underTest.record(null));
+    assertEquals(Set.of("/content/a", "/content/b"), underTest.getPaths());
+    assertEquals(2, underTest.getMaxSize());
+  }
+
+  @Test
+  void testLearned() {
+    HotContextPaths underTest = new HotContextPaths(new String[] { "/content/a" }, 5);
+    assertTrue(underTest.isEnabled());
+    assertFalse(underTest.record("/content/c"));
+    assertTrue(underTest.record("/content/c"));
+    assertEquals(Set.of("/content/a", "/content/c"), underTest.getPaths());
+    assertEquals(6, underTest.getMaxSize());
+  }
+
+}
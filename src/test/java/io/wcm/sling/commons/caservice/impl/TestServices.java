@@ -21,7 +21,9 @@ package io.wcm.sling.commons.caservice.impl;
 
 import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_ACCEPTS_CONTEXT_PATH_EMPTY;
 import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_BLACKLIST_PATTERN;
+import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_BLACKLIST_PREFIX;
 import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_PATTERN;
+import static io.wcm.sling.commons.caservice.ContextAwareService.PROPERTY_CONTEXT_PATH_PREFIX;
 import static org.osgi.framework.Constants.SERVICE_RANKING;
 
 import java.util.Collection;
@@ -102,6 +104,35 @@ class TestServices {
         PROPERTY_ACCEPTS_CONTEXT_PATH_EMPTY, true);
   }
 
+  DummySpi addContentDamPrefixService() {
+    // service defines path prefixes instead of regex patterns
+    return register(new DummySpiImpl("/content/dam/* (prefix)"),
+        PROPERTY_CONTEXT_PATH_PREFIX, new String[] { "/content/dam/", "/content/dam-legacy" },
+        PROPERTY_CONTEXT_PATH_BLACKLIST_PREFIX, "/content/dam/exclude",
+        SERVICE_RANKING, 250);
+  }
+
+  DummySpi addContentPrefixAndRegexService() {
+    // service combines path prefix with regex pattern
+    return register(new DummySpiImpl("/content/*/en (prefix+regex)"),
+        PROPERTY_CONTEXT_PATH_PREFIX, "/content",
+        PROPERTY_CONTEXT_PATH_PATTERN, "^.*/en(/.*)?$",
+        SERVICE_RANKING, 2000);
+  }
+
+  void addInvalidPrefixService() {
+    register(new DummySpiImpl("invalid3"),
+        PROPERTY_CONTEXT_PATH_PREFIX, "content/dam",
+        SERVICE_RANKING, 30000);
+  }
+
+  void addCatastrophicRegexService() {
+    // pattern with nested quantifiers that backtracks excessively on non-matching input
+    register(new DummySpiImpl("catastrophic"),
+        PROPERTY_CONTEXT_PATH_PATTERN, "^/content/(.*a){12}$",
+        SERVICE_RANKING, 40000);
+  }
+
   @SuppressWarnings("null")
   DummySpi addContentDamImplWithBundleHeader() {
     // service gets path pattern from bundle header instead of service property
@@ -0,0 +1,280 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.osgi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.collections4.IteratorUtils;
+import org.junit.jupiter.api.Test;
+import org.osgi.framework.Constants;
+
+import org.mockito.ArgumentCaptor;
+
+import io.wcm.sling.commons.osgi.CopyOnWriteRankedServices.ChangeListener;
+import io.wcm.sling.commons.osgi.CopyOnWriteRankedServices.SnapshotListener;
+import io.wcm.sling.commons.osgi.CopyOnWriteRankedServices.View;
+
+@SuppressWarnings("null")
+class CopyOnWriteRankedServicesTest {
+
+  private static final String SERVICE_1 = "service1";
+  private static final Map<String, Object> SERVICE_1_PROPS = Map.of(
+      Constants.SERVICE_RANKING, 50,
+      Constants.SERVICE_ID, 1L);
+  private static final String SERVICE_2 = "service2";
+  private static final Map<String, Object> SERVICE_2_PROPS = Map.of(
+      Constants.SERVICE_RANKING, 10,
+      Constants.SERVICE_ID, 2L);
+  private static final String SERVICE_3 = "service3";
+  private static final Map<String, Object> SERVICE_3_PROPS = Map.of(
+      Constants.SERVICE_RANKING, 100,
+      Constants.SERVICE_ID, 3L,
+      "type", "special");
+  private static final String SERVICE_4 = "service4";
+  private static final Map<String, Object> SERVICE_4_PROPS = Map.of(
+      Constants.SERVICE_ID, 4L,
+      "type", "special");
+
+  @Test
+  void testSortedServices() {
+
+    CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>();
+    assertEquals(0, underTest.get().size());
+
+    underTest.bind(SERVICE_1, SERVICE_1_PROPS);
+    assertEquals(List.of(SERVICE_1), underTest.get());
+
+    underTest.bind(SERVICE_2, SERVICE_2_PROPS);
+    underTest.bind(SERVICE_3, SERVICE_3_PROPS);
+    underTest.bind(SERVICE_4, SERVICE_4_PROPS);
+    assertEquals(List.of(SERVICE_4, SERVICE_2, SERVICE_1, SERVICE_3), underTest.get());
+    assertEquals(List.of(SERVICE_4, SERVICE_2, SERVICE_1, SERVICE_3), IteratorUtils.toList(underTest.iterator()));
+
+    List<String> snapshot = underTest.get();
+    underTest.unbind(SERVICE_2, SERVICE_2_PROPS);
+    assertEquals(List.of(SERVICE_4, SERVICE_1, SERVICE_3), underTest.get());
+
+    // snapshot is not affected by changes
+    assertEquals(4, snapshot.size());
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.add(SERVICE_2));
+  }
+
+  @Test
+  void testRebindSameService() {
+    CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>();
+    underTest.bind(SERVICE_1, SERVICE_1_PROPS);
+    underTest.bind("service1-new", SERVICE_1_PROPS);
+    assertEquals(List.of("service1-new"), underTest.get());
+  }
+
+  @Test
+  void testBindAll() {
+    CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>();
+    underTest.bind(SERVICE_1, SERVICE_1_PROPS);
+
+    Map<String, Map<String, Object>> services = new LinkedHashMap<>();
+    services.put(SERVICE_3, SERVICE_3_PROPS);
+    services.put("service1-new", SERVICE_1_PROPS);
+    services.put(SERVICE_2, SERVICE_2_PROPS);
+    underTest.bindAll(services);
+    assertEquals(List.of(SERVICE_2, "service1-new", SERVICE_3), underTest.get());
+
+    underTest.bindAll(Map.of());
+    assertEquals(3, underTest.get().size());
+  }
+
+  @Test
+  void testForEach() {
+    CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>();
+    underTest.bind(SERVICE_1, SERVICE_1_PROPS);
+    underTest.bind(SERVICE_2, SERVICE_2_PROPS);
+
+    List<String> result = new ArrayList<>();
+    underTest.forEach(result::add);
+    assertEquals(List.of(SERVICE_2, SERVICE_1), result);
+  }
+
+  @Test
+  void testChangeListener() {
+    ChangeListener changeListener = mock(ChangeListener.class);
+
+    CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>(changeListener);
+    underTest.bind(SERVICE_1, SERVICE_1_PROPS);
+    verify(changeListener).changed();
+
+    underTest.bindAll(Map.of(SERVICE_2, SERVICE_2_PROPS, SERVICE_3, SERVICE_3_PROPS));
+    verify(changeListener, times(2)).changed();
+
+    underTest.unbind(SERVICE_4, SERVICE_4_PROPS);
+    verify(changeListener, times(2)).changed();
+  }
+
+  @Test
+  void testChangeListenerSeesChange() {
+    List<List<String>> notified = new ArrayList<>();
+    AtomicReference<CopyOnWriteRankedServices<String>> underTest = new AtomicReference<>();
+    underTest.set(new CopyOnWriteRankedServices<>(() -> notified.add(underTest.get().get())));
+    underTest.get().bind(SERVICE_1, SERVICE_1_PROPS);
+    underTest.get().unbind(SERVICE_1, SERVICE_1_PROPS);
+    assertEquals(List.of(List.of(SERVICE_1), List.of()), notified);
+  }
+
+  @Test
+  void testUnbindUnknownService() {
+    ChangeListener changeListener = mock(ChangeListener.class);
+    CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>(changeListener);
+    underTest.unbind(SERVICE_1, SERVICE_1_PROPS);
+    assertEquals(0, underTest.get().size());
+    verify(changeListener, never()).changed();
+    assertSame(underTest.get(), underTest.get());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testDebouncedChangeListener() {
+    ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+    ScheduledFuture<?> future = mock(ScheduledFuture.class);
+    when(executor.schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS))).thenAnswer(invocation -> future);
+    SnapshotListener<String> snapshotListener = mock(SnapshotListener.class);
+
+    CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>(snapshotListener,
+        executor, 100, TimeUnit.MILLISECONDS);
+    underTest.bind(SERVICE_1, SERVICE_1_PROPS);
+    underTest.bind(SERVICE_2, SERVICE_2_PROPS);
+    underTest.unbind(SERVICE_1, SERVICE_1_PROPS);
+
+    // each change re-schedules the notification
+    ArgumentCaptor<Runnable> notification = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor, times(3)).schedule(notification.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+    verify(future, times(2)).cancel(false);
+    verify(snapshotListener, never()).changed(any());
+
+    // notification passes final snapshot, and is delivered only once
+    notification.getValue().run();
+    notification.getAllValues().get(0).run();
+    verify(snapshotListener).changed(List.of(SERVICE_2));
+  }
+
+  @Test
+  void testDebouncedChangeListener_Executor() throws InterruptedException {
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    try {
+      CountDownLatch latch = new CountDownLatch(1);
+      List<List<String>> notified = new ArrayList<>();
+      CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>(services -> {
+        notified.add(services);
+        latch.countDown();
+      }, executor, 50, TimeUnit.MILLISECONDS);
+      underTest.bind(SERVICE_1, SERVICE_1_PROPS);
+      underTest.bind(SERVICE_2, SERVICE_2_PROPS);
+      underTest.bind(SERVICE_3, SERVICE_3_PROPS);
+
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+      assertEquals(List.of(SERVICE_2, SERVICE_1, SERVICE_3), notified.get(notified.size() - 1));
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testDebouncedChangeListener_ExecutorShutdown() {
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    executor.shutdown();
+    List<List<String>> notified = new ArrayList<>();
+    CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>(notified::add,
+        executor, 50, TimeUnit.MILLISECONDS);
+    underTest.bind(SERVICE_1, SERVICE_1_PROPS);
+    underTest.unbind(SERVICE_1, SERVICE_1_PROPS);
+    assertEquals(List.of(), underTest.get());
+    assertEquals(List.of(), notified);
+  }
+
+  @Test
+  void testDebouncedChangeListener_InvalidQuietPeriod() {
+    ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+    assertThrows(IllegalArgumentException.class, () -> new CopyOnWriteRankedServices<String>(services -> {
+      // not called
+    }, executor, -1, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void testView() {
+    CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>();
+    View<String> view = underTest.createView(props -> "special".equals(props.get("type")));
+    assertEquals(List.of(), view.get());
+    assertNull(view.getHighestRanked());
+
+    underTest.bind(SERVICE_1, SERVICE_1_PROPS);
+    underTest.bind(SERVICE_3, SERVICE_3_PROPS);
+    underTest.bind(SERVICE_4, SERVICE_4_PROPS);
+    assertEquals(List.of(SERVICE_4, SERVICE_3), view.get());
+    assertEquals(SERVICE_3, view.getHighestRanked());
+
+    // view is only recomputed after changes
+    assertSame(view.get(), view.get());
+
+    underTest.unbind(SERVICE_4, SERVICE_4_PROPS);
+    assertEquals(List.of(SERVICE_3), view.get());
+  }
+
+  @Test
+  void testTopView() {
+    CopyOnWriteRankedServices<String> underTest = new CopyOnWriteRankedServices<>();
+    View<String> top2 = underTest.createTopView(props -> true, 2);
+    View<String> highestSpecial = underTest.createTopView(props -> "special".equals(props.get("type")), 1);
+
+    underTest.bindAll(Map.of(SERVICE_1, SERVICE_1_PROPS, SERVICE_2, SERVICE_2_PROPS,
+        SERVICE_3, SERVICE_3_PROPS, SERVICE_4, SERVICE_4_PROPS));
+    assertEquals(List.of(SERVICE_3, SERVICE_1), top2.get());
+    assertEquals(SERVICE_3, highestSpecial.getHighestRanked());
+
+    underTest.unbind(SERVICE_3, SERVICE_3_PROPS);
+    assertEquals(List.of(SERVICE_1, SERVICE_2), top2.get());
+    assertEquals(SERVICE_4, highestSpecial.getHighestRanked());
+
+    assertThrows(IllegalArgumentException.class, () -> underTest.createTopView(props -> true, 0));
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Calendar;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.jackrabbit.JcrConstants;
+import org.apache.sling.api.resource.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.wcm.sling.commons.caservice.ContextAwareServiceResolver.ResolveAllResult;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+
+@ExtendWith(AemContextExtension.class)
+@SuppressWarnings("null")
+class ConditionalGetTest {
+
+  private final AemContext context = new AemContext();
+
+  @Test
+  void testETag() {
+    ResolveAllResult<?> result = mock(ResolveAllResult.class);
+    when(result.getCombinedKey()).thenReturn("key1");
+
+    String etag = ConditionalGet.create().add(result).addLastModified(1000L).getETag();
+    assertTrue(etag.matches("W/\"[0-9a-f]{16}\""), etag);
+    assertEquals(etag, ConditionalGet.create().add("key1").addLastModified(1000L).getETag());
+    assertNotEquals(etag, ConditionalGet.create().add("key1").addLastModified(2000L).getETag());
+    assertNotEquals(ConditionalGet.create().add("ab").add("c").getETag(), ConditionalGet.create().add("a").add("bc").getETag());
+  }
+
+  @Test
+  void testLastModified() {
+    Calendar lastModified = Calendar.getInstance();
+    lastModified.setTimeInMillis(12345L);
+    Resource resource = context.create().resource("/content/res1", JcrConstants.JCR_LASTMODIFIED, lastModified);
+    context.create().resource("/content/page1");
+    context.create().resource("/content/page1/jcr:content", JcrConstants.JCR_LASTMODIFIED, lastModified);
+
+    assertEquals(12345L, ConditionalGet.getLastModified(resource));
+    assertEquals(12345L, ConditionalGet.getLastModified(context.resourceResolver().getResource("/content/page1")));
+    assertEquals(0L, ConditionalGet.getLastModified(null));
+  }
+
+  @Test
+  void testHandle_NotModified() {
+    ConditionalGet underTest = ConditionalGet.create().add("key1");
+    context.request().setHeader("If-None-Match", "\"other\", " + underTest.getETag());
+
+    assertTrue(underTest.handle(context.request(), context.response()));
+    assertEquals(HttpServletResponse.SC_NOT_MODIFIED, context.response().getStatus());
+    assertEquals(underTest.getETag(), context.response().getHeader("ETag"));
+  }
+
+  @Test
+  void testHandle_Modified() {
+    ConditionalGet underTest = ConditionalGet.create().add("key1");
+    context.request().setHeader("If-None-Match", ConditionalGet.create().add("key2").getETag());
+
+    assertFalse(underTest.handle(context.request(), context.response()));
+    assertEquals(HttpServletResponse.SC_OK, context.response().getStatus());
+    assertEquals(underTest.getETag(), context.response().getHeader("ETag"));
+  }
+
+  @Test
+  void testHandle_Post() {
+    ConditionalGet underTest = ConditionalGet.create().add("key1");
+    context.request().setMethod("POST");
+    context.request().setHeader("If-None-Match", underTest.getETag());
+
+    assertFalse(underTest.handle(context.request(), context.response()));
+  }
+
+  @Test
+  void testMatches() {
+    assertTrue(ConditionalGet.matches("*", "W/\"abc\""));
+    assertTrue(ConditionalGet.matches("\"abc\"", "W/\"abc\""));
+    assertTrue(ConditionalGet.matches("W/\"xyz\" , W/\"abc\"", "W/\"abc\""));
+    assertFalse(ConditionalGet.matches("W/\"xyz\"", "W/\"abc\""));
+    assertFalse(ConditionalGet.matches(null, "W/\"abc\""));
+  }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sling.api.wrappers.SlingHttpServletRequestWrapper;
+import org.apache.sling.servlethelpers.MockSlingHttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+
+@ExtendWith(AemContextExtension.class)
+class DecodedParametersTest {
+
+  private static final String VALUE = "äöü";
+  private static final String VALUE_ISO88591 = new String(VALUE.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+
+  private final AemContext context = new AemContext();
+
+  private MockSlingHttpServletRequest request;
+
+  @BeforeEach
+  void setUp() {
+    request = spy(context.request());
+    setParameterMap(Map.of(
+        "param1", new String[] { VALUE_ISO88591 },
+        "param2", new String[] { VALUE_ISO88591, "value2" }));
+  }
+
+  private void setParameterMap(Map<String, String[]> parameterMap) {
+    request.setParameterMap(new HashMap<>(parameterMap));
+  }
+
+  @Test
+  void testDecodeOnce() {
+    DecodedParameters underTest = DecodedParameters.get(request);
+    assertSame(underTest, DecodedParameters.get(request));
+
+    assertEquals(VALUE, underTest.getDecoded("param1"));
+    assertEquals(VALUE_ISO88591, underTest.getRaw("param1"));
+    assertSame(underTest.getDecoded("param1"), underTest.getDecoded("param1"));
+    assertNull(underTest.getDecoded("nonExisting"));
+    assertNull(underTest.getDecoded("nonExisting"));
+
+    assertArrayEquals(new String[] { VALUE, "value2" }, underTest.getDecodedMultiple("param2"));
+    assertSame(underTest.getDecodedMultiple("param2"), underTest.getDecodedMultiple("param2"));
+    assertNull(underTest.getDecodedMultiple("nonExisting"));
+
+    verify(request, times(1)).getParameter(RequestParam.PARAMETER_FORMENCODING);
+    verify(request, times(1)).getParameter("param1");
+    verify(request, times(1)).getParameter("nonExisting");
+    verify(request, times(1)).getParameterValues("param2");
+  }
+
+  @Test
+  void testFormEncoding() {
+    setParameterMap(Map.of(
+        "param1", new String[] { VALUE },
+        RequestParam.PARAMETER_FORMENCODING, new String[] { StandardCharsets.UTF_8.name() }));
+    DecodedParameters underTest = DecodedParameters.get(request);
+    assertEquals(VALUE, underTest.getDecoded("param1"));
+    assertArrayEquals(new String[] { VALUE }, underTest.getDecodedMultiple("param1"));
+  }
+
+  @Test
+  void testWrappedRequest() {
+    DecodedParameters parameters = DecodedParameters.get(request);
+    SlingHttpServletRequestWrapper wrapper = new SlingHttpServletRequestWrapper(request);
+    assertSame(parameters, DecodedParameters.get(wrapper));
+    assertSame(parameters, DecodedParameters.get(request));
+  }
+
+  @Test
+  void testCachedForMockRequest() {
+    // the mock request returns a new parameter map instance on each call
+    MockSlingHttpServletRequest mockRequest = context.request();
+    mockRequest.setParameterMap(Map.of("param1", VALUE_ISO88591));
+    DecodedParameters parameters = DecodedParameters.get(mockRequest);
+    assertSame(parameters, DecodedParameters.get(mockRequest));
+    assertEquals(VALUE, parameters.getDecoded("param1"));
+  }
+
+  @Test
+  void testCharacterEncodingChanged() throws Exception {
+    DecodedParameters parameters = DecodedParameters.get(request);
+    assertSame(parameters, DecodedParameters.get(request));
+
+    request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    DecodedParameters newParameters = DecodedParameters.get(request);
+    assertNotSame(parameters, newParameters);
+    assertSame(newParameters, DecodedParameters.get(request));
+  }
+
+  @Test
+  void testGetDecodedMultiple_NoConversion() {
+    String[] values = new String[] { "value1", "value2" };
+    doReturn(values).when(request).getParameterValues("param1");
+    assertSame(values, DecodedParameters.get(request).getDecodedMultiple("param1"));
+  }
+
+  @Test
+  void testConvertISO88591toUTF8_Ascii() {
+    String value = "/content/path?a=b&c=1";
+    assertSame(value, DecodedParameters.convertISO88591toUTF8(value));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "äöüß€",
+      "value1 äöüß€ ᚠᛇᚻ γλώσσα",
+      "ascii prefix \uD83D\uDE00 emoji",
+      "\u0080\u07FF\u0800\uFFFF"
+  })
+  void testConvertISO88591toUTF8(String value) {
+    String unescaped = value;
+    assertEquals(unescaped, DecodedParameters.convertISO88591toUTF8(toISO88591(unescaped)));
+  }
+
+  @Test
+  void testConvertISO88591toUTF8_LongValue() {
+    String value = StringUtils.repeat("äöü€", 1000);
+    assertEquals(value, DecodedParameters.convertISO88591toUTF8(toISO88591(value)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "\u00C3",
+      "\u00C3abc",
+      "\u00E2\u0082",
+      "\u00ED\u00A0\u0080",
+      "\u00F0\u0080\u0080\u0080",
+      "\u00F5\u0080\u0080\u0080",
+      "\u00C0\u0080",
+      "\u0080",
+      "\u20AC"
+  })
+  void testConvertISO88591toUTF8_Malformed(String value) {
+    String unescaped = value;
+    String expected = new String(unescaped.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+    assertEquals(expected, DecodedParameters.convertISO88591toUTF8(unescaped));
+  }
+
+  private static String toISO88591(String value) {
+    return new String(value.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+  }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class FnvHashTest {
+
+  @Test
+  void testHash() {
+    // FNV-1a 64-bit reference value for "a"
+    assertEquals(0xaf63dc4c8601ec8cL, FnvHash.hash(FnvHash.SEED, "a"));
+    assertEquals(FnvHash.hash(FnvHash.SEED, "ab"), FnvHash.hash(FnvHash.hash(FnvHash.SEED, 'a'), 'b'));
+    assertEquals(FnvHash.SEED, FnvHash.hash(FnvHash.SEED, ""));
+  }
+
+  @Test
+  void testFinish() {
+    assertNotEquals(FnvHash.hash(FnvHash.SEED, "a"), FnvHash.finish(FnvHash.hash(FnvHash.SEED, "a")));
+    assertEquals(0L, FnvHash.finish(0L));
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParameterParserTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "0", "123", "-123", "+123", "007", "2147483647", "-2147483648", "2147483648", "-2147483649",
+      "9223372036854775807", "-9223372036854775808", "9223372036854775808", "-9223372036854775809",
+      "-09223372036854775808", "", "-", "+", " 1", "1 ", "1.0", "1e3", "abc", "12a", "0x10", "١٢"
+  })
+  void testToIntToLong(String value) {
+    assertEquals(NumberUtils.toInt(value, -1), ParameterParser.toInt(value, -1));
+    assertEquals(NumberUtils.toLong(value, -1L), ParameterParser.toLong(value, -1L));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "0", "1.5", "-1.5", "+1.5", ".5", "5.", ".", "1e10", "1E-10", "1e", "1e+", "1.5f", "1.5D", "1.5x",
+      " 1.5 ", "\t2\n", "NaN", "-Infinity", "+Infinity", "Infinityx", "nan", "0x1p3", "-0X1.8P1", "0x", "0xz",
+      "1e400", "", " ", "-", "abc", "1,5", "1.5.5", "١"
+  })
+  void testToFloatToDouble(String value) {
+    assertEquals(NumberUtils.toFloat(value, -1f), ParameterParser.toFloat(value, -1f));
+    assertEquals(NumberUtils.toDouble(value, -1d), ParameterParser.toDouble(value, -1d));
+  }
+
+  @Test
+  void testNull() {
+    assertEquals(5, ParameterParser.toInt(null, 5));
+    assertEquals(5L, ParameterParser.toLong(null, 5L));
+    assertEquals(5f, ParameterParser.toFloat(null, 5f));
+    assertEquals(5d, ParameterParser.toDouble(null, 5d));
+    assertSame(TimeUnit.DAYS, ParameterParser.toEnum(null, TimeUnit.class, TimeUnit.DAYS));
+  }
+
+  @Test
+  void testToEnum() {
+    assertSame(TimeUnit.SECONDS, ParameterParser.toEnum("SECONDS", TimeUnit.class, null));
+    assertSame(TimeUnit.DAYS, ParameterParser.toEnum("seconds", TimeUnit.class, TimeUnit.DAYS));
+    assertSame(TimeUnit.DAYS, ParameterParser.toEnum("", TimeUnit.class, TimeUnit.DAYS));
+    assertNull(ParameterParser.toEnum("invalid", TimeUnit.class, null));
+  }
+
+}
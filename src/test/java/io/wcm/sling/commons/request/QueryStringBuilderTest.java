@@ -20,8 +20,12 @@
 package io.wcm.sling.commons.request;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -81,4 +85,123 @@ class QueryStringBuilderTest {
         .build());
   }
 
+  @Test
+  void testPrimitiveArrays() {
+    assertEquals("p1=1&p1=-2&p2=3&p3=true&p3=false&p4=1.5&p5=-2.5&p6=a&p6=%26&p7=7&p8=8", new QueryStringBuilder()
+        .param("p1", new int[] { 1, -2 })
+        .param("p2", new long[] { 3L })
+        .param("p3", new boolean[] { true, false })
+        .param("p4", new double[] { 1.5d })
+        .param("p5", new float[] { -2.5f })
+        .param("p6", new char[] { 'a', '&' })
+        .param("p7", new short[] { 7 })
+        .param("p8", new byte[] { 8 })
+        .param("p9", new int[0])
+        .build());
+  }
+
+  @Test
+  void testPrimitiveArrayCopied() {
+    int[] values = new int[] { 1, 2 };
+    QueryStringBuilder underTest = new QueryStringBuilder().param("p1", values);
+    values[0] = 5;
+    assertEquals("p1=1&p1=2", underTest.build());
+  }
+
+  @Test
+  void testMutableValueConverted() {
+    StringBuilder value = new StringBuilder("a");
+    List<Object> items = new ArrayList<>(List.of(value));
+    QueryStringBuilder underTest = new QueryStringBuilder()
+        .param("p1", value)
+        .param("p2", items)
+        .param("p3", new Object[] { value });
+    value.append("b");
+    assertEquals("p1=a&p2=a&p3=a", underTest.build());
+  }
+
+  @Test
+  void testOnlyEmptyArray() {
+    assertNull(new QueryStringBuilder().param("p1", new int[0]).build());
+  }
+
+  @Test
+  void testAppendTo() throws IOException {
+    QueryStringBuilder underTest = new QueryStringBuilder()
+        .param("p1", SPECIAL_CHARS)
+        .param("p2", 5);
+    String expected = "p1=" + Escape.urlEncode(SPECIAL_CHARS) + "&p2=5";
+
+    StringBuilder sb = new StringBuilder("/path?");
+    underTest.appendTo(sb);
+    assertEquals("/path?" + expected, sb.toString());
+
+    StringWriter writer = new StringWriter();
+    underTest.appendTo(writer);
+    assertEquals(expected, writer.toString());
+  }
+
+  @Test
+  void testAppendToPrimitiveArrays() throws IOException {
+    QueryStringBuilder underTest = new QueryStringBuilder()
+        .param("p1", new int[] { 1, -2 })
+        .param("p2", new boolean[] { true })
+        .param("p3", new double[] { 1.5d })
+        .param("p4", new char[] { '&' })
+        .param("p5", 7L);
+    StringWriter writer = new StringWriter();
+    underTest.appendTo(writer);
+    assertEquals(underTest.build(), writer.toString());
+  }
+
+  @Test
+  void testBuildCanonical() {
+    String expected = "a=1&a=2&b=x&b=y&c=" + Escape.urlEncode(SPECIAL_CHARS);
+    assertEquals(expected, new QueryStringBuilder()
+        .param("c", SPECIAL_CHARS)
+        .param("b", List.of("y", "x", "y"))
+        .param("a", new int[] { 2, 1 })
+        .param("a", 1)
+        .buildCanonical());
+    assertEquals(expected, new QueryStringBuilder()
+        .param("a", 1)
+        .param("b", "x")
+        .param("a", 2)
+        .param("b", "y")
+        .param("c", SPECIAL_CHARS)
+        .buildCanonical());
+    assertNull(new QueryStringBuilder().buildCanonical());
+  }
+
+  @Test
+  void testBuildCanonicalWithHash() {
+    CanonicalQueryString result1 = new QueryStringBuilder()
+        .param("p2", "value2")
+        .param("p1", "value1")
+        .buildCanonicalWithHash();
+    CanonicalQueryString result2 = new QueryStringBuilder()
+        .param("p1", "value1")
+        .param("p2", "value2")
+        .param("p2", "value2")
+        .buildCanonicalWithHash();
+    CanonicalQueryString result3 = new QueryStringBuilder()
+        .param("p1", "value1")
+        .param("p2", "value3")
+        .buildCanonicalWithHash();
+
+    assertEquals("p1=value1&p2=value2", result1.getQueryString());
+    assertEquals(result1, result2);
+    assertEquals(result1.getHash(), result2.getHash());
+    assertNotEquals(result1.getHash(), result3.getHash());
+
+    // hash computed while building matches hash of full query string
+    String queryString = result1.getQueryString();
+    assertEquals(FnvHash.finish(FnvHash.hash(FnvHash.SEED, queryString)),
+        result1.getHash());
+
+    CanonicalQueryString empty = new QueryStringBuilder().buildCanonicalWithHash();
+    assertNull(empty.getQueryString());
+    assertEquals("", empty.toString());
+  }
+
 }
@@ -0,0 +1,156 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class QueryStringParserTest {
+
+  private static final String SPECIAL_CHARS = "a!:$&= +äöü€";
+
+  @Test
+  void testParse() {
+    QueryStringParser underTest = QueryStringParser.parse("?p1=value1&p2=&p3&&p1=value2&=x");
+    assertEquals(5, underTest.size());
+    assertEquals("p1", underTest.getName(0));
+    assertEquals("value1", underTest.getValue(0));
+    assertEquals("p2", underTest.getName(1));
+    assertEquals("", underTest.getValue(1));
+    assertEquals("p3", underTest.getName(2));
+    assertEquals("", underTest.getValue(2));
+    assertEquals("", underTest.getName(4));
+    assertEquals("x", underTest.getValue(4));
+
+    assertEquals("value1", underTest.get("p1"));
+    assertArrayEquals(new String[] { "value1", "value2" }, underTest.getValues("p1"));
+    assertNull(underTest.get("p4"));
+    assertNull(underTest.getValues("p4"));
+    assertThrows(IndexOutOfBoundsException.class, () -> underTest.getName(5));
+  }
+
+  @Test
+  void testEmpty() {
+    assertEquals(0, QueryStringParser.parse(null).size());
+    assertEquals(0, QueryStringParser.parse("").size());
+    assertEquals(0, QueryStringParser.parse("?").size());
+    assertEquals(0, QueryStringParser.parse("&&").size());
+    assertTrue(QueryStringParser.parse("").asParameterMap().isEmpty());
+  }
+
+  @Test
+  void testRoundtrip() {
+    String queryString = new QueryStringBuilder()
+        .param(SPECIAL_CHARS, SPECIAL_CHARS)
+        .param("p2", List.of("1", "2"))
+        .build();
+    QueryStringParser underTest = QueryStringParser.parse(queryString);
+    assertEquals(SPECIAL_CHARS, underTest.get(SPECIAL_CHARS));
+    assertEquals(SPECIAL_CHARS, underTest.getName(0));
+    assertArrayEquals(new String[] { "1", "2" }, underTest.getValues("p2"));
+    assertEquals(queryString, underTest.toString());
+  }
+
+  @Test
+  void testMalformedEncoding() {
+    QueryStringParser underTest = QueryStringParser.parse("p1=100%&p2=%zz%4&p3=%C3%A4%");
+    assertEquals("100%", underTest.get("p1"));
+    assertEquals("%zz%4", underTest.get("p2"));
+    assertEquals("ä%", underTest.get("p3"));
+  }
+
+  @Test
+  void testParameterMap() {
+    String queryString = new QueryStringBuilder()
+        .param("p1", SPECIAL_CHARS)
+        .param("p2", List.of("1", "2"))
+        .build();
+    Map<String, String[]> map = QueryStringParser.parse(queryString).asParameterMap();
+
+    // values are decoded as ISO-8859-1 like by a servlet engine, RequestParam converts them to UTF-8
+    assertEquals(SPECIAL_CHARS, RequestParam.get(map, "p1"));
+    assertEquals("1", RequestParam.get(map, "p2"));
+    assertNull(RequestParam.get(map, "p3"));
+
+    assertTrue(map.containsKey("p1"));
+    assertFalse(map.containsKey("p3"));
+    assertEquals(2, map.size());
+    assertArrayEquals(new String[] { "1", "2" }, map.get("p2"));
+    assertEquals(List.of("p1", "p2"), List.copyOf(map.keySet()));
+  }
+
+  @Test
+  void testParameterMap_FormEncoding() {
+    String queryString = new QueryStringBuilder()
+        .param("p1", SPECIAL_CHARS)
+        .param(RequestParam.PARAMETER_FORMENCODING, "UTF-8")
+        .build();
+    Map<String, String[]> map = QueryStringParser.parse(queryString).asParameterMap();
+    assertEquals(SPECIAL_CHARS, map.get("p1")[0]);
+    assertEquals(SPECIAL_CHARS, RequestParam.get(map, "p1"));
+  }
+
+  @Test
+  void testParameterMap_NameDecoding() {
+    String queryString = new QueryStringBuilder()
+        .param("ä", "1")
+        .build();
+    Map<String, String[]> map = QueryStringParser.parse(queryString).asParameterMap();
+    // names are decoded as ISO-8859-1 like the values
+    String isoName = new String("ä".getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+    assertEquals(List.of(isoName), List.copyOf(map.keySet()));
+    assertArrayEquals(new String[] { "1" }, map.get(isoName));
+    assertTrue(map.containsKey(isoName));
+    assertFalse(map.containsKey("ä"));
+
+    Map<String, String[]> utf8Map = QueryStringParser.parse(queryString + "&_charset_=UTF-8").asParameterMap();
+    assertArrayEquals(new String[] { "1" }, utf8Map.get("ä"));
+    assertTrue(utf8Map.containsKey("ä"));
+  }
+
+  @Test
+  void testParameterMap_UnsupportedFormEncoding() {
+    String queryString = new QueryStringBuilder()
+        .param("p1", SPECIAL_CHARS)
+        .param(RequestParam.PARAMETER_FORMENCODING, "invalid-charset")
+        .build();
+    Map<String, String[]> map = QueryStringParser.parse(queryString).asParameterMap();
+    // RequestParam does not convert values if form encoding parameter is present, so UTF-8 is used
+    assertEquals(SPECIAL_CHARS, map.get("p1")[0]);
+    assertEquals(SPECIAL_CHARS, RequestParam.get(map, "p1"));
+  }
+
+  @Test
+  void testCharSequence() {
+    StringBuilder sb = new StringBuilder("p1=a+b");
+    assertEquals("a b", QueryStringParser.parse(sb).get("p1"));
+  }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.wcm.sling.commons.util.Escape;
+
+class QueryStringTemplateTest {
+
+  private static final String SPECIAL_CHARS = "a!:$&=";
+
+  private static final QueryStringTemplate TEMPLATE = QueryStringTemplate.of("page", "size", SPECIAL_CHARS);
+
+  @Test
+  void testBuild() {
+    assertEquals("page=1&size=20&" + Escape.urlEncode(SPECIAL_CHARS) + "=" + Escape.urlEncode(SPECIAL_CHARS),
+        TEMPLATE.build(1, 20L, SPECIAL_CHARS));
+    assertEquals("page=2&size=&" + Escape.urlEncode(SPECIAL_CHARS) + "=true",
+        TEMPLATE.build(2, null, true));
+  }
+
+  @Test
+  void testBuild_SameAsQueryStringBuilder() {
+    Object[] values = new Object[] { new int[] { 1, 2 }, List.of("a b", "c"), new String[] { "ä", null } };
+    assertEquals(new QueryStringBuilder()
+        .param("page", values[0])
+        .param("size", values[1])
+        .param(SPECIAL_CHARS, values[2])
+        .build(), TEMPLATE.build(values));
+  }
+
+  @Test
+  void testBuild_EmptyArrays() {
+    assertEquals("size=5", TEMPLATE.build(new int[0], 5, List.of()));
+    assertNull(TEMPLATE.build(new int[0], new String[0], List.of()));
+    assertNull(QueryStringTemplate.of().build());
+  }
+
+  @Test
+  void testBuild_InvalidValueCount() {
+    assertThrows(IllegalArgumentException.class, () -> TEMPLATE.build(1, 2));
+  }
+
+  @Test
+  void testAppendTo() throws IOException {
+    StringBuilder sb = new StringBuilder("/path?");
+    TEMPLATE.appendTo(sb, 1, 2, 3);
+    assertEquals("/path?page=1&size=2&" + Escape.urlEncode(SPECIAL_CHARS) + "=3", sb.toString());
+
+    StringWriter writer = new StringWriter();
+    TEMPLATE.appendTo(writer, 1, 2, 3);
+    assertEquals("page=1&size=2&" + Escape.urlEncode(SPECIAL_CHARS) + "=3", writer.toString());
+  }
+
+}
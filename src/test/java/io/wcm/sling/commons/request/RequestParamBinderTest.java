@@ -0,0 +1,210 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.sling.servlethelpers.MockSlingHttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+
+@ExtendWith(AemContextExtension.class)
+class RequestParamBinderTest {
+
+  private static final String STRING_VALUE = "value1 äöüß€";
+
+  private final AemContext context = new AemContext();
+
+  private MockSlingHttpServletRequest request;
+
+  @BeforeEach
+  void setUp() {
+    request = context.request();
+  }
+
+  @Test
+  void testBind() {
+    request.setParameterMap(Map.of(
+        "name", STRING_VALUE,
+        "tags", new String[] { "tag1", STRING_VALUE },
+        "count", "5",
+        "size", "654597898978",
+        "ratio", "1.5",
+        "weight", "2.5",
+        "active", "true",
+        "unit", "SECONDS",
+        "unknown", "value",
+        RequestParam.PARAMETER_FORMENCODING, StandardCharsets.UTF_8.name()));
+
+    FormBean bean = RequestParamBinder.forType(FormBean.class).bind(request);
+    assertEquals(STRING_VALUE, bean.name);
+    assertArrayEquals(new String[] { "tag1", STRING_VALUE }, bean.tags);
+    assertEquals(5, bean.getCount());
+    assertEquals(654597898978L, bean.size);
+    assertEquals(1.5f, bean.ratio);
+    assertEquals(2.5d, bean.getWeight());
+    assertTrue(bean.active);
+    assertEquals(Unit.SECONDS, bean.unit);
+  }
+
+  @Test
+  void testBind_ConvertEncoding() {
+    String iso88591Value = new String(STRING_VALUE.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+    request.setParameterMap(Map.of(
+        "name", iso88591Value,
+        "tags", new String[] { iso88591Value }));
+
+    FormBean bean = RequestParamBinder.forType(FormBean.class).bind(request);
+    assertEquals(STRING_VALUE, bean.name);
+    assertArrayEquals(new String[] { STRING_VALUE }, bean.tags);
+  }
+
+  @Test
+  void testBind_Defaults() {
+    request.setParameterMap(Map.of(
+        "count", "invalid",
+        "ratio", "1,5",
+        "weight", "",
+        "active", "invalid",
+        "unit", "invalid"));
+
+    FormBean bean = RequestParamBinder.forType(FormBean.class).bind(request);
+    assertEquals("defaultName", bean.name);
+    assertNull(bean.tags);
+    assertEquals(10, bean.getCount());
+    assertEquals(0L, bean.size);
+    assertEquals(0.5f, bean.ratio);
+    assertEquals(0d, bean.getWeight());
+    assertFalse(bean.active);
+    assertEquals(Unit.MINUTES, bean.unit);
+  }
+
+  @Test
+  void testBind_OverloadedSetters() {
+    request.setParameterMap(Map.of(
+        "value", "abc",
+        "number", "654597898978"));
+
+    OverloadedSetterBean bean = RequestParamBinder.forType(OverloadedSetterBean.class).bind(request);
+    assertEquals("abc", bean.value);
+    assertEquals(654597898978L, bean.number);
+  }
+
+  @Test
+  void testForTypeCached() {
+    assertSame(RequestParamBinder.forType(FormBean.class), RequestParamBinder.forType(FormBean.class));
+  }
+
+  @Test
+  void testInvalidTypes() {
+    assertThrows(IllegalArgumentException.class, () -> RequestParamBinder.forType(NoDefaultConstructor.class));
+    assertThrows(IllegalArgumentException.class, () -> RequestParamBinder.forType(NonPublicBean.class));
+  }
+
+  public enum Unit {
+    SECONDS,
+    MINUTES
+  }
+
+  public static class FormBean {
+
+    public String name = "defaultName";
+    public String[] tags;
+    private int count = 10;
+    public long size;
+    public float ratio = 0.5f;
+    private double weight;
+    public boolean active;
+    public Unit unit = Unit.MINUTES;
+    public Object unsupported;
+
+    public int getCount() {
+      return this.count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public double getWeight() {
+      return this.weight;
+    }
+
+    public void setWeight(Double weight) {
+      this.weight = weight;
+    }
+
+  }
+
+  public static class OverloadedSetterBean {
+
+    private String value;
+    private long number;
+
+    public void setValue(int value) {
+      this.value = "int:" + value;
+    }
+
+    public void setValue(String value) {
+      this.value = value;
+    }
+
+    public void setValue(boolean value) {
+      this.value = "boolean:" + value;
+    }
+
+    public void setNumber(int number) {
+      this.number = -number;
+    }
+
+    public void setNumber(long number) {
+      this.number = number;
+    }
+
+  }
+
+  public static class NoDefaultConstructor {
+
+    public String name;
+
+    public NoDefaultConstructor(String name) {
+      this.name = name;
+    }
+
+  }
+
+  static class NonPublicBean {
+    public String name;
+  }
+
+}
@@ -22,6 +22,7 @@ package io.wcm.sling.commons.request;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -108,6 +109,14 @@ class RequestParamTest {
     assertNull(RequestParam.get(request, PARAM_NONEXISTING));
   }
 
+  @Test
+  void testGetMultiple_Modified() {
+    String[] values = RequestParam.getMultiple(request, MULTI_STRING_PARAM);
+    assertNotSame(values, RequestParam.getMultiple(request, MULTI_STRING_PARAM));
+    values[0] = "modified";
+    assertArrayEquals(MULTI_STRING_VALUE, RequestParam.getMultiple(request, MULTI_STRING_PARAM));
+  }
+
   @Test
   void testGetMap() {
     assertEquals(STRING_VALUE, RequestParam.get(request.getParameterMap(), STRING_PARAM));
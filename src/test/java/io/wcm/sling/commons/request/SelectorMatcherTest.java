@@ -0,0 +1,149 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.request.RequestPathInfo;
+import org.apache.sling.api.wrappers.SlingHttpServletRequestWrapper;
+import org.apache.sling.servlethelpers.MockRequestPathInfo;
+import org.apache.sling.servlethelpers.MockSlingHttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class SelectorMatcherTest {
+
+  private static final SelectorMatcher UNDER_TEST = SelectorMatcher.of("sel1", "sel3");
+
+  @Mock
+  private RequestPathInfo requestPathInfo;
+  @Mock
+  private RequestPathInfo otherRequestPathInfo;
+
+  @Test
+  void testContains() {
+    assertTrue(UNDER_TEST.contains("sel1"));
+    assertTrue(UNDER_TEST.contains("sel3"));
+    assertFalse(UNDER_TEST.contains("sel2"));
+    assertFalse(UNDER_TEST.contains(null));
+    assertFalse(SelectorMatcher.of().contains("sel1"));
+  }
+
+  @Test
+  void testContains_ManySelectors() {
+    String[] selectors = new String[200];
+    for (int i = 0; i < selectors.length; i++) {
+      selectors[i] = "selector" + i;
+    }
+    SelectorMatcher underTest = SelectorMatcher.of(selectors);
+    for (String selector : selectors) {
+      assertTrue(underTest.contains(selector));
+    }
+    assertFalse(underTest.contains("selector200"));
+    // same hash code, different value
+    assertTrue(SelectorMatcher.of("Aa").contains("Aa"));
+    assertFalse(SelectorMatcher.of("Aa").contains("BB"));
+  }
+
+  @Test
+  void testContains_SameHashCode() {
+    // "Aa" and "BB" have the same hash code, as all combinations of them
+    SelectorMatcher underTest = SelectorMatcher.of("Aa", "BB", "AaAa", "BBBB", "AaBB", "sel1");
+    assertTrue(underTest.contains("Aa"));
+    assertTrue(underTest.contains("BB"));
+    assertTrue(underTest.contains("AaAa"));
+    assertTrue(underTest.contains("BBBB"));
+    assertTrue(underTest.contains("AaBB"));
+    assertTrue(underTest.contains("sel1"));
+    assertFalse(underTest.contains("BBAa"));
+    assertFalse(underTest.contains("sel2"));
+  }
+
+  @Test
+  void testMatches() {
+    MockSlingHttpServletRequest request = new MockSlingHttpServletRequest(null);
+    SlingHttpServletRequest mockRequest = new SlingHttpServletRequestWrapper(request) {
+      @Override
+      public RequestPathInfo getRequestPathInfo() {
+        return requestPathInfo;
+      }
+    };
+    when(requestPathInfo.getSelectors()).thenReturn(new String[] { "sel2", "sel3" });
+
+    assertTrue(UNDER_TEST.matches(mockRequest));
+    assertFalse(SelectorMatcher.of("sel1").matches(mockRequest));
+    assertTrue(RequestPath.hasSelector(mockRequest, "sel2"));
+    assertTrue(RequestPath.hasAnySelector(mockRequest, "sel1", "sel2"));
+
+    // selectors are fetched only once per request path info
+    verify(requestPathInfo, times(1)).getSelectors();
+  }
+
+  @Test
+  void testMatches_RequestPathInfoChanged() {
+    MockSlingHttpServletRequest request = new MockSlingHttpServletRequest(null);
+    RequestPathInfo[] current = new RequestPathInfo[] { requestPathInfo };
+    SlingHttpServletRequest mockRequest = new SlingHttpServletRequestWrapper(request) {
+      @Override
+      public RequestPathInfo getRequestPathInfo() {
+        return current[0];
+      }
+    };
+    when(requestPathInfo.getSelectorString()).thenReturn("sel1");
+    when(requestPathInfo.getSelectors()).thenReturn(new String[] { "sel1" });
+    when(otherRequestPathInfo.getSelectors()).thenReturn(null);
+
+    assertTrue(UNDER_TEST.matches(mockRequest));
+    current[0] = otherRequestPathInfo;
+    assertFalse(UNDER_TEST.matches(mockRequest));
+  }
+
+  @Test
+  void testMatches_SelectorStringChanged() {
+    MockSlingHttpServletRequest request = new MockSlingHttpServletRequest(null);
+    MockRequestPathInfo mockRequestPathInfo = (MockRequestPathInfo)request.getRequestPathInfo();
+    mockRequestPathInfo.setSelectorString("sel1.sel2");
+    assertTrue(UNDER_TEST.matches(request));
+    assertTrue(RequestPath.hasSelector(request, "sel2"));
+
+    // same request path info instance with other selectors
+    mockRequestPathInfo.setSelectorString("sel2");
+    assertFalse(UNDER_TEST.matches(request));
+    assertTrue(RequestPath.hasAnySelector(request, "sel2"));
+    assertFalse(RequestPath.hasSelector(request, "sel1"));
+  }
+
+  @Test
+  void testContains_NullSelectors() {
+    assertTrue(SelectorMatcher.of("sel1", null).contains("sel1"));
+    assertFalse(SelectorMatcher.of((String)null).contains("sel1"));
+    assertFalse(SelectorMatcher.of((String[])null).contains("sel1"));
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.request.RequestPathInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+class SlingUrlBuilderTest {
+
+  @Mock
+  private SlingHttpServletRequest request;
+  @Mock
+  private RequestPathInfo requestPathInfo;
+
+  @Test
+  void testPathOnly() {
+    assertEquals("/content/page", SlingUrlBuilder.create().build("/content/page"));
+  }
+
+  @Test
+  void testCommonParts() {
+    SlingUrlBuilder underTest = SlingUrlBuilder.create()
+        .host("https://www.example.com")
+        .basePath("/content/site")
+        .extension("html");
+    assertEquals("https://www.example.com/content/site/en/page1.html", underTest.build("/en/page1"));
+    assertEquals("https://www.example.com/content/site/en/page2.html", underTest.build("/en/page2"));
+  }
+
+  @Test
+  void testAllParts() {
+    SlingUrlBuilder underTest = SlingUrlBuilder.create()
+        .host("https://www.example.com")
+        .selectors("sel1")
+        .extension("html");
+    QueryStringBuilder queryString = new QueryStringBuilder()
+        .param("p1", "a b")
+        .param("p2", 5);
+    assertEquals("https://www.example.com/content/page.sel1.sel2.sel3.html/suffix/path?p1=a+b&p2=5",
+        underTest.build("/content/page", new String[] { "sel2", "sel3" }, "/suffix/path", queryString));
+  }
+
+  @Test
+  void testSuffixWithoutSlash() {
+    assertEquals("/content/page.json/suffix",
+        SlingUrlBuilder.create().extension("json").build("/content/page", null, "suffix", null));
+  }
+
+  @Test
+  void testEmptyQueryString() {
+    assertEquals("/content/page.html",
+        SlingUrlBuilder.create().extension("html").build("/content/page", null, null, new QueryStringBuilder()));
+  }
+
+  @Test
+  void testSelectorsFrom() {
+    when(request.getRequestPathInfo()).thenReturn(requestPathInfo);
+    when(requestPathInfo.getSelectors()).thenReturn(new String[] { "sel1", "sel2" });
+    SlingUrlBuilder underTest = SlingUrlBuilder.create()
+        .selectorsFrom(request)
+        .extension("html");
+    assertEquals("/content/page.sel1.sel2.sel3.html", underTest.build("/content/page", new String[] { "sel3" }, null, null));
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request.impl;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.felix.inventory.Format;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+
+/**
+ * Test inventory printer.
+ */
+@ExtendWith(AemContextExtension.class)
+class IncludeProfilerInventoryPrinterTest {
+
+  private final AemContext context = new AemContext();
+
+  @Test
+  void testProfilingDisabled() throws IOException {
+    context.registerInjectActivateService(RequestContextFilterImpl.class);
+    IncludeProfilerInventoryPrinter underTest = context.registerInjectActivateService(IncludeProfilerInventoryPrinter.class);
+
+    String result = getResultFromInventoryPrinter(underTest, Format.TEXT);
+    assertTrue(StringUtils.contains(result, "Include profiling is disabled."));
+  }
+
+  @Test
+  void testProfilingEnabled() throws IOException, ServletException {
+    RequestContextFilterImpl filter = context.registerInjectActivateService(RequestContextFilterImpl.class,
+        "includeProfiling", true);
+    IncludeProfilerInventoryPrinter underTest = context.registerInjectActivateService(IncludeProfilerInventoryPrinter.class);
+
+    context.currentResource(context.create().resource("/content/page",
+        "sling:resourceType", "app/components/page"));
+    FilterChain chain = (req, resp) -> {
+      // nothing to do
+    };
+    filter.doFilter(context.request(), context.response(), chain);
+
+    String result = getResultFromInventoryPrinter(underTest, Format.TEXT);
+    assertTrue(StringUtils.contains(result, "Resource Types"));
+    assertTrue(StringUtils.contains(result, "app/components/page"));
+    assertTrue(StringUtils.contains(result, "/content/page"));
+  }
+
+  @Test
+  void testNonText() throws IOException {
+    context.registerInjectActivateService(RequestContextFilterImpl.class, "includeProfiling", true);
+    IncludeProfilerInventoryPrinter underTest = context.registerInjectActivateService(IncludeProfilerInventoryPrinter.class);
+
+    String result = getResultFromInventoryPrinter(underTest, Format.HTML);
+    assertTrue(StringUtils.isEmpty(result));
+  }
+
+  private String getResultFromInventoryPrinter(IncludeProfilerInventoryPrinter underTest, Format format) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    PrintWriter pw = new PrintWriter(bos);
+    underTest.print(pw, format, false);
+    pw.flush();
+
+    return IOUtils.toString(bos.toByteArray(), StandardCharsets.UTF_8.name());
+  }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IncludeProfilerTest {
+
+  @Mock
+  private SlingHttpServletRequest pageRequest;
+  @Mock
+  private Resource pageResource;
+  @Mock
+  private SlingHttpServletRequest componentRequest;
+  @Mock
+  private Resource componentResource;
+
+  @Test
+  void testCallTreeAndStats() {
+    when(pageRequest.getResource()).thenReturn(pageResource);
+    when(pageResource.getResourceType()).thenReturn("app/page");
+    when(componentRequest.getResource()).thenReturn(componentResource);
+    when(componentResource.getResourceType()).thenReturn("app/component");
+
+    IncludeProfiler underTest = new IncludeProfiler(2);
+    RequestStack stack = new RequestStack();
+
+    IncludeProfiler.Node page = underTest.start(stack, pageRequest);
+    IncludeProfiler.Node component1 = underTest.start(stack, componentRequest);
+    underTest.end(stack, component1);
+    IncludeProfiler.Node component2 = underTest.start(stack, componentRequest);
+    underTest.end(stack, component2);
+    assertSame(page, stack.getProfileNode());
+    underTest.end(stack, page);
+    assertNull(stack.getProfileNode());
+
+    assertEquals(List.of(component1, component2), page.getChildren());
+    assertEquals(List.of(page), underTest.getRecentRequests());
+    assertTrue(page.getDurationNanos() >= component1.getDurationNanos() + component2.getDurationNanos());
+
+    List<IncludeProfiler.ResourceTypeStats> stats = underTest.getResourceTypeStats();
+    assertEquals(2, stats.size());
+    assertEquals("app/page", stats.get(0).getResourceType());
+    assertEquals(1, stats.get(0).getCount());
+    assertEquals("app/component", stats.get(1).getResourceType());
+    assertEquals(2, stats.get(1).getCount());
+  }
+
+  @Test
+  void testCapturedStackOnOtherThread() throws Exception {
+    IncludeProfiler underTest = new IncludeProfiler(2);
+    RequestStack stack = new RequestStack();
+    stack.push(pageRequest);
+    IncludeProfiler.Node page = underTest.start(stack, pageRequest);
+    RequestStack.Captured captured = stack.capture();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    IncludeProfiler.Node component;
+    try {
+      component = executor.submit(() -> {
+        RequestStack workerStack = new RequestStack(captured);
+        workerStack.push(componentRequest);
+        IncludeProfiler.Node node = underTest.start(workerStack, componentRequest);
+        underTest.end(workerStack, node);
+        assertSame(page, workerStack.getProfileNode());
+        return node;
+      }).get();
+    }
+    finally {
+      executor.shutdownNow();
+    }
+    underTest.end(stack, page);
+
+    // include on other thread is part of the call tree of the capturing request
+    assertEquals(List.of(component), page.getChildren());
+    assertEquals(List.of(page), underTest.getRecentRequests());
+  }
+
+  @Test
+  void testRecentRequests() {
+    IncludeProfiler underTest = new IncludeProfiler(2);
+    RequestStack stack = new RequestStack();
+
+    IncludeProfiler.Node request1 = underTest.start(stack, pageRequest);
+    underTest.end(stack, request1);
+    IncludeProfiler.Node request2 = underTest.start(stack, pageRequest);
+    underTest.end(stack, request2);
+    IncludeProfiler.Node request3 = underTest.start(stack, pageRequest);
+    underTest.end(stack, request3);
+
+    assertEquals(List.of(request3, request2), underTest.getRecentRequests());
+    assertEquals(IncludeProfiler.UNKNOWN_RESOURCE_TYPE, request1.getResourceType());
+  }
+
+  @Test
+  void testRecentRequestsDisabled() {
+    IncludeProfiler underTest = new IncludeProfiler(0);
+    RequestStack stack = new RequestStack();
+    underTest.end(stack, underTest.start(stack, pageRequest));
+
+    assertTrue(underTest.getRecentRequests().isEmpty());
+    assertEquals(1, underTest.getResourceTypeStats().size());
+  }
+
+  @Test
+  void testBuckets() {
+    assertEquals(0, IncludeProfiler.getBucket(500));
+    assertEquals(1, IncludeProfiler.getBucket(TimeUnit.MICROSECONDS.toNanos(1)));
+    assertEquals(2, IncludeProfiler.getBucket(TimeUnit.MICROSECONDS.toNanos(3)));
+    assertEquals(10, IncludeProfiler.getBucket(TimeUnit.MILLISECONDS.toNanos(1)));
+    assertEquals(IncludeProfiler.BUCKET_COUNT - 1, IncludeProfiler.getBucket(Long.MAX_VALUE));
+  }
+
+  @Test
+  void testPercentiles() {
+    IncludeProfiler.ResourceTypeStats underTest = new IncludeProfiler.ResourceTypeStats("app/component");
+    assertEquals(0, underTest.getPercentileMicros(50));
+
+    for (int i = 0; i < 90; i++) {
+      underTest.record(TimeUnit.MICROSECONDS.toNanos(3));
+    }
+    for (int i = 0; i < 10; i++) {
+      underTest.record(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    assertEquals(100, underTest.getCount());
+    assertEquals(4, underTest.getPercentileMicros(50));
+    assertEquals(4, underTest.getPercentileMicros(90));
+    assertEquals(1024, underTest.getPercentileMicros(99));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(1), underTest.getMaxNanos());
+  }
+
+}
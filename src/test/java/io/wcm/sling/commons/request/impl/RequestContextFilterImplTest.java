@@ -19,11 +19,26 @@
  */
 package io.wcm.sling.commons.request.impl;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
 
 import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -38,6 +53,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.wcm.sling.commons.request.RequestMemoKey;
+
 @ExtendWith(MockitoExtension.class)
 class RequestContextFilterImplTest {
 
@@ -96,6 +113,258 @@ class RequestContextFilterImplTest {
     assertNull(underTest.getThreadRequest());
   }
 
+  @Test
+  void testFilterNonSlingRequest() throws Exception {
+    ServletRequest servletRequest = mock(ServletRequest.class);
+
+    underTest.doFilter(request, response, new FilterChain() {
+      @Override
+      public void doFilter(ServletRequest req, ServletResponse resp) throws IOException, ServletException {
+        underTest.doFilter(servletRequest, resp, new FilterChain() {
+          @Override
+          public void doFilter(ServletRequest req2, ServletResponse resp2) {
+            assertSame(request, underTest.getThreadRequest());
+          }
+        });
+        assertSame(request, underTest.getThreadRequest());
+      }
+    });
+
+    assertNull(underTest.getThreadRequest());
+  }
+
+  @Test
+  void testOtherThread() throws Exception {
+    underTest.doFilter(request, response, new FilterChain() {
+      @Override
+      public void doFilter(ServletRequest req, ServletResponse resp) throws ServletException {
+        AtomicReference<SlingHttpServletRequest> otherThreadRequest = new AtomicReference<>(request);
+        Thread thread = new Thread(() -> otherThreadRequest.set(underTest.getThreadRequest()));
+        thread.start();
+        try {
+          thread.join();
+        }
+        catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new ServletException(ex);
+        }
+        assertNull(otherThreadRequest.get());
+      }
+    });
+  }
+
+  @Test
+  void testWrap_NoRequest() {
+    Runnable runnable = () -> {
+      // nothing to do
+    };
+    Callable<String> callable = () -> "value";
+    assertSame(runnable, underTest.wrap(runnable));
+    assertSame(callable, underTest.wrap(callable));
+  }
+
+  @Test
+  void testWrapRunnable() throws Exception {
+    AtomicReference<SlingHttpServletRequest> workerRequest = new AtomicReference<>();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      underTest.doFilter(request, response, new FilterChain() {
+        @Override
+        public void doFilter(ServletRequest req, ServletResponse resp) throws IOException, ServletException {
+          underTest.doFilter(request2, resp, new FilterChain() {
+            @Override
+            public void doFilter(ServletRequest req2, ServletResponse resp2) {
+              await(executor.submit(underTest.wrap(() -> workerRequest.set(underTest.getThreadRequest()))));
+            }
+          });
+        }
+      });
+      assertSame(request2, workerRequest.get());
+      // context is removed from worker thread after task
+      assertNull(executor.submit(underTest::getThreadRequest).get());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testWrapCallable() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      underTest.doFilter(request, response, new FilterChain() {
+        @Override
+        public void doFilter(ServletRequest req, ServletResponse resp) {
+          Callable<SlingHttpServletRequest> task = underTest::getThreadRequest;
+          assertSame(request, await(executor.submit(underTest.wrap(task))));
+        }
+      });
+      assertNull(executor.submit(underTest::getThreadRequest).get());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testWrapCallable_RestoresPreviousContext() throws Exception {
+    AtomicReference<Callable<SlingHttpServletRequest>> wrapped = new AtomicReference<>();
+    underTest.doFilter(request, response, new FilterChain() {
+      @Override
+      public void doFilter(ServletRequest req, ServletResponse resp) throws IOException, ServletException {
+        wrapped.set(underTest.wrap(underTest::getThreadRequest));
+        underTest.doFilter(request2, response, new FilterChain() {
+          @Override
+          public void doFilter(ServletRequest req2, ServletResponse resp2) throws ServletException {
+            try {
+              assertSame(request, wrapped.get().call());
+            }
+            catch (Exception ex) {
+              throw new ServletException(ex);
+            }
+            assertSame(request2, underTest.getThreadRequest());
+          }
+        });
+      }
+    });
+  }
+
+  @Test
+  void testWrapCallable_RequestCompleted() throws Exception {
+    AtomicReference<Callable<SlingHttpServletRequest>> wrapped = new AtomicReference<>();
+    underTest.doFilter(request, response, new FilterChain() {
+      @Override
+      public void doFilter(ServletRequest req, ServletResponse resp) {
+        wrapped.set(underTest.wrap(underTest::getThreadRequest));
+      }
+    });
+    // task started after the captured request has completed runs without request context
+    assertNull(wrapped.get().call());
+    underTest.doFilter(request2, response, new FilterChain() {
+      @Override
+      public void doFilter(ServletRequest req, ServletResponse resp) throws ServletException {
+        try {
+          assertNull(wrapped.get().call());
+        }
+        catch (Exception ex) {
+          throw new ServletException(ex);
+        }
+        assertSame(request2, underTest.getThreadRequest());
+      }
+    });
+  }
+
+  @Test
+  void testWrapExecutor() throws Exception {
+    AtomicReference<SlingHttpServletRequest> workerRequest = new AtomicReference<>();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Executor wrappedExecutor = underTest.wrap(executor);
+      CountDownLatch done = new CountDownLatch(1);
+      underTest.doFilter(request, response, new FilterChain() {
+        @Override
+        public void doFilter(ServletRequest req, ServletResponse resp) throws ServletException {
+          wrappedExecutor.execute(() -> {
+            workerRequest.set(underTest.getThreadRequest());
+            done.countDown();
+          });
+          // wrapped tasks have to complete before the request completes
+          try {
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+          }
+          catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(ex);
+          }
+        }
+      });
+      assertSame(request, workerRequest.get());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testComputeIfAbsent() throws Exception {
+    RequestMemoKey<String> key = RequestMemoKey.create("key");
+    AtomicInteger counter = new AtomicInteger();
+    Supplier<String> supplier = () -> "value" + counter.incrementAndGet();
+
+    underTest.doFilter(request, response, new FilterChain() {
+      @Override
+      public void doFilter(ServletRequest req, ServletResponse resp) throws IOException, ServletException {
+        assertEquals("value1", underTest.computeIfAbsent(key, supplier));
+        assertEquals("value1", underTest.computeIfAbsent(key, supplier));
+
+        // nested request shares memo store of outermost request
+        underTest.doFilter(request2, resp, new FilterChain() {
+          @Override
+          public void doFilter(ServletRequest req2, ServletResponse resp2) {
+            assertEquals("value1", underTest.computeIfAbsent(key, supplier));
+          }
+        });
+        assertEquals("value1", underTest.computeIfAbsent(key, supplier));
+      }
+    });
+
+    // memo store is discarded after outermost request
+    underTest.doFilter(request, response, new FilterChain() {
+      @Override
+      public void doFilter(ServletRequest req, ServletResponse resp) {
+        assertEquals("value2", underTest.computeIfAbsent(key, supplier));
+      }
+    });
+  }
+
+  @Test
+  void testComputeIfAbsent_NoRequest() {
+    RequestMemoKey<String> key = RequestMemoKey.create("key");
+    AtomicInteger counter = new AtomicInteger();
+    Supplier<String> supplier = () -> "value" + counter.incrementAndGet();
+    assertEquals("value1", underTest.computeIfAbsent(key, supplier));
+    assertEquals("value2", underTest.computeIfAbsent(key, supplier));
+  }
+
+  @Test
+  void testComputeIfAbsent_NestedAndNull() throws Exception {
+    RequestMemoKey<Integer> key1 = RequestMemoKey.create("key1");
+    RequestMemoKey<Integer> key2 = RequestMemoKey.create("key2");
+    RequestMemoKey<String> nullKey = RequestMemoKey.create("nullKey");
+    AtomicInteger nullCounter = new AtomicInteger();
+
+    underTest.doFilter(request, response, new FilterChain() {
+      @Override
+      public void doFilter(ServletRequest req, ServletResponse resp) {
+        assertEquals(3, underTest.computeIfAbsent(key1, () -> underTest.computeIfAbsent(key2, () -> 2) + 1));
+        assertEquals(2, underTest.computeIfAbsent(key2, () -> 5));
+
+        assertNull(underTest.computeIfAbsent(nullKey, () -> {
+          nullCounter.incrementAndGet();
+          return null;
+        }));
+        assertNull(underTest.computeIfAbsent(nullKey, () -> {
+          nullCounter.incrementAndGet();
+          return null;
+        }));
+        assertEquals(2, nullCounter.get());
+      }
+    });
+  }
+
+  private static <T> T await(Future<T> future) {
+    try {
+      return future.get(10, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(ex);
+    }
+    catch (ExecutionException | TimeoutException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
   @Test
   void testWithExeption() throws Exception {
     assertNull(underTest.getThreadRequest());
@@ -0,0 +1,357 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.felix.inventory.Format;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChange.ChangeType;
+import org.apache.sling.servlethelpers.MockRequestPathInfo;
+import org.apache.sling.servlethelpers.MockSlingHttpServletRequest;
+import org.apache.sling.servlethelpers.MockSlingHttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.wcm.sling.commons.caservice.ContextAwareService;
+import io.wcm.sling.commons.caservice.ContextAwareServiceResolver;
+import io.wcm.sling.commons.caservice.impl.ContextAwareServiceResolverImpl;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+
+@ExtendWith(AemContextExtension.class)
+class ResponseCacheFilterImplTest {
+
+  private final AemContext context = new AemContext();
+
+  private ResponseCacheFilterImpl underTest;
+  private final AtomicInteger renderCount = new AtomicInteger();
+  private FilterChain chain;
+
+  @BeforeEach
+  void setUp() {
+    context.registerInjectActivateService(ContextAwareServiceResolverImpl.class);
+    underTest = context.registerInjectActivateService(ResponseCacheFilterImpl.class,
+        "includePaths", new String[] { "/content" },
+        "excludePaths", new String[] { "/content/excluded" });
+    chain = (req, resp) -> {
+      HttpServletResponse response = (HttpServletResponse)resp;
+      response.setContentType("application/json");
+      response.setCharacterEncoding("UTF-8");
+      response.setHeader("X-Custom", "value1");
+      response.addHeader("X-Custom", "value2");
+      response.getWriter().write("{\"count\":" + renderCount.incrementAndGet() + "}");
+    };
+  }
+
+  @Test
+  void testCacheHit() throws Exception {
+    MockSlingHttpServletResponse response1 = execute(request("/content/page", "json", null), chain);
+    MockSlingHttpServletResponse response2 = execute(request("/content/page", "json", null), chain);
+
+    assertEquals(1, renderCount.get());
+    assertEquals("{\"count\":1}", response1.getOutputAsString());
+    assertEquals("{\"count\":1}", response2.getOutputAsString());
+    assertEquals(HttpServletResponse.SC_OK, response2.getStatus());
+    assertEquals("application/json;charset=UTF-8", response2.getContentType());
+    assertEquals(List.of("value1", "value2"), List.copyOf(response2.getHeaders("X-Custom")));
+  }
+
+  @Test
+  void testDifferentExtension() throws Exception {
+    execute(request("/content/page", "json", null), chain);
+    execute(request("/content/page", "html", null), chain);
+    assertEquals(2, renderCount.get());
+  }
+
+  @Test
+  void testCanonicalQueryString() throws Exception {
+    execute(request("/content/page", "json", "b=2&a=1"), chain);
+    execute(request("/content/page", "json", "a=1&b=2"), chain);
+    assertEquals(1, renderCount.get());
+
+    execute(request("/content/page", "json", "a=1&b=3"), chain);
+    assertEquals(2, renderCount.get());
+  }
+
+  @Test
+  void testBuildKey() {
+    assertEquals(ResponseCacheFilterImpl.buildKey(request("/content/page", "json", "b=2&a=%41")),
+        ResponseCacheFilterImpl.buildKey(request("/content/page", "json", "a=A&b=2")));
+    assertNotEquals(ResponseCacheFilterImpl.buildKey(request("/content/page", "json", null)),
+        ResponseCacheFilterImpl.buildKey(request("/content/page", "json", "a=1")));
+    assertEquals("http://localhost:80/content/page.json",
+        ResponseCacheFilterImpl.buildKey(request("/content/page", "json", null)));
+  }
+
+  @Test
+  void testAllHostsCachedSeparately() throws Exception {
+    MockSlingHttpServletRequest request1 = request("/content/page", "json", null);
+    request1.setServerName("host1.example.com");
+    execute(request1, chain);
+    execute(request1, chain);
+    MockSlingHttpServletRequest request2 = request("/content/page", "json", null);
+    request2.setServerName("host2.example.com");
+    MockSlingHttpServletResponse response = execute(request2, chain);
+    assertEquals(2, renderCount.get());
+    assertEquals("{\"count\":2}", response.getOutputAsString());
+  }
+
+  @Test
+  void testHosts() throws Exception {
+    underTest = context.registerInjectActivateService(ResponseCacheFilterImpl.class,
+        "includePaths", new String[] { "/content" },
+        "hosts", new String[] { "www.example.com" });
+
+    MockSlingHttpServletRequest request1 = request("/content/page", "json", null);
+    request1.setServerName("www.example.com");
+    execute(request1, chain);
+    MockSlingHttpServletRequest request2 = request("/content/page", "json", null);
+    request2.setServerName("WWW.example.com");
+    execute(request2, chain);
+    assertEquals(1, renderCount.get());
+
+    // other hosts are not cached
+    MockSlingHttpServletRequest request3 = request("/content/page", "json", null);
+    request3.setServerName("random.example.com");
+    execute(request3, chain);
+    execute(request3, chain);
+    assertEquals(3, renderCount.get());
+  }
+
+  @Test
+  void testNotCachedPaths() throws Exception {
+    execute(request("/content/excluded/page", "json", null), chain);
+    execute(request("/content/excluded/page", "json", null), chain);
+    execute(request("/apps/page", "json", null), chain);
+    execute(request("/apps/page", "json", null), chain);
+    assertEquals(4, renderCount.get());
+
+    assertTrue(underTest.isIncluded("/content"));
+    assertTrue(underTest.isIncluded("/content/page"));
+    assertFalse(underTest.isIncluded("/content2"));
+    assertFalse(underTest.isIncluded("/content/excluded"));
+  }
+
+  @Test
+  void testNotCachedPost() throws Exception {
+    MockSlingHttpServletRequest request1 = request("/content/page", "json", null);
+    request1.setMethod("POST");
+    execute(request1, chain);
+    execute(request("/content/page", "json", null), chain);
+    assertEquals(2, renderCount.get());
+  }
+
+  @Test
+  void testNotCachedAuthenticated() throws Exception {
+    MockSlingHttpServletRequest request1 = request("/content/page", "json", null);
+    request1.setRemoteUser("admin");
+    execute(request1, chain);
+    MockSlingHttpServletRequest request2 = request("/content/page", "json", null);
+    request2.setRemoteUser("admin");
+    execute(request2, chain);
+    assertEquals(2, renderCount.get());
+  }
+
+  @Test
+  void testNotCachedCookieOrCredentials() throws Exception {
+    MockSlingHttpServletRequest request1 = request("/content/page", "json", null);
+    request1.addCookie(new Cookie("session", "abc"));
+    execute(request1, chain);
+    MockSlingHttpServletRequest request2 = request("/content/page", "json", null);
+    request2.addHeader("Authorization", "Basic YWRtaW46YWRtaW4=");
+    execute(request2, chain);
+    MockSlingHttpServletRequest request3 = request("/content/page", "json", null);
+    request3.addCookie(new Cookie("session", "abc"));
+    execute(request3, chain);
+    assertEquals(3, renderCount.get());
+  }
+
+  @Test
+  void testNotCachedVary() throws Exception {
+    FilterChain varyChain = (req, resp) -> {
+      ((HttpServletResponse)resp).setHeader("Vary", "Accept-Language");
+      chain.doFilter(req, resp);
+    };
+    execute(request("/content/page", "json", null), varyChain);
+    execute(request("/content/page", "json", null), varyChain);
+    assertEquals(2, renderCount.get());
+  }
+
+  @Test
+  void testHeaderNamesCaseInsensitiveAndLocale() throws Exception {
+    FilterChain localeChain = (req, resp) -> {
+      HttpServletResponse response = (HttpServletResponse)resp;
+      response.setLocale(Locale.GERMAN);
+      response.setHeader("x-custom", "value0");
+      chain.doFilter(req, resp);
+    };
+    execute(request("/content/page", "json", null), localeChain);
+    MockSlingHttpServletResponse response = execute(request("/content/page", "json", null), localeChain);
+    assertEquals(1, renderCount.get());
+    assertEquals(List.of("value1", "value2"), List.copyOf(response.getHeaders("X-Custom")));
+    assertEquals(Locale.GERMAN, response.getLocale());
+  }
+
+  @Test
+  void testNotCachedResponse() throws Exception {
+    FilterChain cookieChain = (req, resp) -> {
+      ((HttpServletResponse)resp).setHeader("Set-Cookie", "a=b");
+      chain.doFilter(req, resp);
+    };
+    execute(request("/content/page1", "json", null), cookieChain);
+    execute(request("/content/page1", "json", null), cookieChain);
+
+    FilterChain errorChain = (req, resp) -> {
+      renderCount.incrementAndGet();
+      ((HttpServletResponse)resp).sendError(HttpServletResponse.SC_NOT_FOUND);
+    };
+    execute(request("/content/page2", "json", null), errorChain);
+    execute(request("/content/page2", "json", null), errorChain);
+
+    assertEquals(4, renderCount.get());
+  }
+
+  @Test
+  void testRenderingFails() throws Exception {
+    FilterChain failingChain = (req, resp) -> {
+      renderCount.incrementAndGet();
+      resp.getWriter().println("partial");
+      throw new ServletException("failed");
+    };
+    MockSlingHttpServletResponse response = new MockSlingHttpServletResponse();
+    assertThrows(ServletException.class,
+        () -> underTest.doFilter(request("/content/page", "json", null), response, failingChain));
+    assertEquals("partial" + System.lineSeparator(), response.getOutputAsString());
+
+    assertThrows(ServletException.class, () -> execute(request("/content/page", "json", null), failingChain));
+    assertEquals(2, renderCount.get());
+  }
+
+  @Test
+  void testWriterAndOutputStream() throws Exception {
+    FilterChain writerChain = (req, resp) -> {
+      resp.getWriter();
+      assertThrows(IllegalStateException.class, resp::getOutputStream);
+    };
+    execute(request("/content/page1", "json", null), writerChain);
+
+    FilterChain streamChain = (req, resp) -> {
+      resp.getOutputStream();
+      assertThrows(IllegalStateException.class, resp::getWriter);
+    };
+    execute(request("/content/page2", "json", null), streamChain);
+  }
+
+  @Test
+  void testMaxResponseSize() throws Exception {
+    underTest = context.registerInjectActivateService(ResponseCacheFilterImpl.class,
+        "includePaths", new String[] { "/content" },
+        "maxResponseSize", 5);
+    execute(request("/content/page", "json", null), chain);
+    MockSlingHttpServletResponse response = execute(request("/content/page", "json", null), chain);
+    assertEquals(2, renderCount.get());
+    assertEquals("{\"count\":2}", response.getOutputAsString());
+  }
+
+  @Test
+  void testInvalidateOnResourceChange() throws Exception {
+    execute(request("/content/page", "json", null), chain);
+    execute(request("/content/page", "json", null), chain);
+    assertEquals(1, renderCount.get());
+
+    underTest.onChange(List.of(new ResourceChange(ChangeType.CHANGED, "/conf/site/sling:configs/config1", false)));
+    MockSlingHttpServletResponse response = execute(request("/content/page", "json", null), chain);
+    assertEquals(2, renderCount.get());
+    assertEquals("{\"count\":2}", response.getOutputAsString());
+  }
+
+  @Test
+  void testInvalidateOnServiceChange() throws Exception {
+    ContextAwareServiceResolver resolver = context.getService(ContextAwareServiceResolver.class);
+    // open service tracker for dummy service
+    resolver.resolve(DummyService.class, null);
+    execute(request("/content/page", "json", null), chain);
+    execute(request("/content/page", "json", null), chain);
+    assertEquals(1, renderCount.get());
+
+    long generation = resolver.getServiceChangeGeneration();
+    context.registerService(DummyService.class, new DummyService() {
+      // dummy implementation
+    });
+    assertTrue(resolver.getServiceChangeGeneration() > generation);
+
+    execute(request("/content/page", "json", null), chain);
+    assertEquals(2, renderCount.get());
+  }
+
+  @Test
+  void testPrint() throws Exception {
+    execute(request("/content/page", "json", null), chain);
+    execute(request("/content/page", "json", null), chain);
+
+    StringWriter sw = new StringWriter();
+    underTest.print(new PrintWriter(sw), Format.TEXT, false);
+    String result = sw.toString();
+    assertTrue(result.contains("Cached responses: 1"), result);
+    assertTrue(result.contains("Hits: 1"), result);
+    assertTrue(result.contains("Misses: 1"), result);
+  }
+
+  public interface DummyService extends ContextAwareService {
+    // marker interface
+  }
+
+  private MockSlingHttpServletRequest request(String resourcePath, String extension, String queryString) {
+    MockSlingHttpServletRequest request = new MockSlingHttpServletRequest(context.resourceResolver());
+    MockRequestPathInfo pathInfo = (MockRequestPathInfo)request.getRequestPathInfo();
+    pathInfo.setResourcePath(resourcePath);
+    pathInfo.setExtension(extension);
+    if (queryString != null) {
+      request.setQueryString(queryString);
+    }
+    return request;
+  }
+
+  private MockSlingHttpServletResponse execute(MockSlingHttpServletRequest request, FilterChain filterChain)
+      throws IOException, ServletException {
+    MockSlingHttpServletResponse response = new MockSlingHttpServletResponse();
+    underTest.doFilter(request, response, filterChain);
+    return response;
+  }
+
+}
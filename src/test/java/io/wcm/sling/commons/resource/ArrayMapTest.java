@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ArrayMapTest {
+
+  @Test
+  void testEmpty() {
+    assertSame(ArrayMap.EMPTY, ArrayMap.of());
+    assertTrue(ArrayMap.EMPTY.isEmpty());
+    assertNull(ArrayMap.EMPTY.get("p1"));
+  }
+
+  @Test
+  void testLinear() {
+    Map<String, Object> map = ArrayMap.of("p1", "v1", "p2", null);
+    assertEquals(2, map.size());
+    assertEquals("v1", map.get("p1"));
+    assertTrue(map.containsKey("p2"));
+    assertNull(map.get("p2"));
+    assertFalse(map.containsKey(null));
+    assertTrue(map.containsValue(null));
+  }
+
+  @Test
+  void testHashedWithCollisions() {
+    // "Aa" and "BB" have the same hash code
+    Map<String, Object> expected = new LinkedHashMap<>();
+    for (int i = 0; i < ArrayMap.MAX_LINEAR_SIZE; i++) {
+      expected.put("Aa" + i, i);
+      expected.put("BB" + i, -i);
+    }
+    Map<String, Object> map = ArrayMap.copyOf(expected);
+
+    assertEquals(expected, map);
+    assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+    for (Map.Entry<String, Object> entry : expected.entrySet()) {
+      assertEquals(entry.getValue(), map.get(entry.getKey()));
+    }
+    assertNull(map.get("Aa" + ArrayMap.MAX_LINEAR_SIZE));
+    assertNull(map.get(5));
+  }
+
+  @Test
+  void testHashedDuplicateKeys() {
+    List<Object> keysAndValues = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      keysAndValues.add("p" + i);
+      keysAndValues.add(i);
+    }
+    keysAndValues.add("p0");
+    keysAndValues.add("v0");
+    Map<String, Object> map = ArrayMap.of(keysAndValues.toArray());
+
+    assertEquals(10, map.size());
+    assertEquals("v0", map.get("p0"));
+    assertEquals("p0", map.keySet().iterator().next());
+  }
+
+  @Test
+  void testTableSize() {
+    assertEquals(2, ArrayMap.tableSize(1));
+    assertEquals(16, ArrayMap.tableSize(8));
+    assertEquals(32, ArrayMap.tableSize(9));
+    assertEquals(32, ArrayMap.tableSize(16));
+  }
+
+}
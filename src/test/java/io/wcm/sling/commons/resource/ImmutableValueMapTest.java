@@ -19,9 +19,11 @@
  */
 package io.wcm.sling.commons.resource;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -151,6 +153,60 @@ class ImmutableValueMapTest {
     assertEquals("v5", map.get("p5"));
   }
 
+  @Test
+  void testBuilderLarge() {
+    ImmutableValueMap.Builder builder = ImmutableValueMap.builder();
+    for (int i = 0; i < 20; i++) {
+      builder.put("p" + i, i);
+    }
+    ValueMap map = builder.build();
+    assertEquals(20, map.size());
+    for (int i = 0; i < 20; i++) {
+      assertEquals(i, map.get("p" + i));
+      assertEquals(Integer.toString(i), map.get("p" + i, String.class));
+    }
+    assertNull(map.get("p20"));
+    assertFalse(map.containsKey("p20"));
+    assertTrue(map.containsValue(19));
+    assertEquals("p0", map.keySet().iterator().next());
+  }
+
+  @Test
+  void testBuilderNotModifiedAfterBuild() {
+    ImmutableValueMap.Builder builder = ImmutableValueMap.builder().put("p1", "v1");
+    ValueMap map = builder.build();
+    builder.put("p2", "v2");
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void testOfDuplicateKeys() {
+    ValueMap map = ImmutableValueMap.of("p1", "v1", "p2", "v2", "p1", "v3");
+    assertWithOrder(map, "p1", "v3", "p2", "v2");
+  }
+
+  @Test
+  void testTypeConversion() {
+    ValueMap map = ImmutableValueMap.of("string", "55", "int", 55, "bool", "true", "array", new String[] { "a", "b" });
+    assertEquals((Integer)55, map.get("string", Integer.class));
+    assertEquals((Long)55L, map.get("int", Long.class));
+    assertEquals("55", map.get("int", String.class));
+    assertEquals(Boolean.TRUE, map.get("bool", Boolean.class));
+    assertArrayEquals(new String[] { "a", "b" }, map.get("array", String[].class));
+    assertEquals("a", map.get("array", String.class));
+    assertNull(map.get("string2", String.class));
+    assertEquals(10, map.get("string2", 10));
+    assertEquals(55, map.get("string", 10));
+  }
+
+  @Test
+  void testUnmodifiableViews() {
+    ValueMap map = ImmutableValueMap.of("p1", "v1");
+    assertThrows(UnsupportedOperationException.class, () -> map.keySet().remove("p1"));
+    assertThrows(UnsupportedOperationException.class, () -> map.entrySet().iterator().next().setValue("v2"));
+    assertEquals("v1", map.get("p1"));
+  }
+
   @Test
   void testBuilderEmpty() {
     ValueMap map = ImmutableValueMap.builder().build();
@@ -164,6 +220,13 @@ class ImmutableValueMapTest {
     assertEquals(map.size(), SAMPLE_PROPS.size());
   }
 
+  @Test
+  @SuppressWarnings("null")
+  void testNullKey() {
+    assertThrows(NullPointerException.class, () -> ImmutableValueMap.of(null, "value1"));
+    assertThrows(NullPointerException.class, () -> ImmutableValueMap.builder().put(null, "value1").build());
+  }
+
   @Test
   void testEquals() {
     ValueMap map1 = ImmutableValueMap.builder()
@@ -181,6 +244,8 @@ class ImmutableValueMapTest {
 
     assertEquals(map1, map2);
     assertEquals(map2, map1);
+    assertEquals(map1, ImmutableValueMap.copyOf(Map.of("prop1", "value1", "prop2", 55)));
+    assertEquals(map1.hashCode(), ImmutableValueMap.copyOf(Map.of("prop1", "value1", "prop2", 55)).hashCode());
     assertNotEquals(map1, map3);
     assertNotEquals(map2, map3);
   }
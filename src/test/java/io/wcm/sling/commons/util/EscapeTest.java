@@ -20,9 +20,12 @@
 package io.wcm.sling.commons.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -32,6 +35,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /**
  * Test {@link Escape} class.
@@ -48,6 +52,35 @@ class EscapeTest {
     assertEquals(URLEncoder.encode("äölsa§$5x !?_", StandardCharsets.UTF_8.name()), Escape.urlEncode("äölsa§$5x !?_"));
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "", "abc", "aZ09.-*_", "a b+c", "a&b=c/d?e#f%g~h!i'j(k)l", "äöüß€", "\u007F\u0080\u07FF\u0800\uFFFF",
+      "emoji \uD83D\uDE00", "lone \uD83D high", "lone \uDE00 low", "end \uD83D"
+  })
+  void testUrlEncode_URLEncoder(String value) throws IOException {
+    String expected = URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+    assertEquals(expected, Escape.urlEncode(value));
+
+    StringBuilder sb = new StringBuilder("x");
+    Escape.urlEncode(value, sb);
+    assertEquals("x" + expected, sb.toString());
+
+    StringWriter writer = new StringWriter();
+    Escape.urlEncode(value, (Appendable)writer);
+    assertEquals(expected, writer.toString());
+  }
+
+  @Test
+  void testUrlEncode_NoCopy() {
+    String value = "abc-123";
+    assertSame(value, Escape.urlEncode(value));
+    assertEquals("", Escape.urlEncode(null));
+
+    StringBuilder sb = new StringBuilder();
+    Escape.urlEncode(null, sb);
+    assertEquals("", sb.toString());
+  }
+
   @Test
   void testValidName() {
     assertEquals("abc", Escape.validName("abc"));
@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2026 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.sling.commons.request;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.sling.servlethelpers.MockSlingHttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+
+/**
+ * Binding to records, compiled only on Java 16 and above (profile "java16-tests").
+ */
+@ExtendWith(AemContextExtension.class)
+class RequestParamBinderRecordTest {
+
+  private static final String STRING_VALUE = "value1 äöüß€";
+
+  private final AemContext context = new AemContext();
+
+  private MockSlingHttpServletRequest request;
+
+  @BeforeEach
+  void setUp() {
+    request = context.request();
+  }
+
+  @Test
+  void testBind() {
+    String iso88591Value = new String(STRING_VALUE.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+    request.setParameterMap(Map.of(
+        "name", iso88591Value,
+        "tags", new String[] { "tag1", iso88591Value },
+        "count", "5",
+        "active", "true",
+        "unknown", "value"));
+
+    FormRecord record = RequestParamBinder.forType(FormRecord.class).bind(request);
+    assertEquals(STRING_VALUE, record.name());
+    assertArrayEquals(new String[] { "tag1", STRING_VALUE }, record.tags());
+    assertEquals(5, record.count());
+    assertTrue(record.active());
+  }
+
+  @Test
+  void testBind_Defaults() {
+    request.setParameterMap(Map.of(
+        "count", "invalid",
+        "active", "invalid"));
+
+    FormRecord record = RequestParamBinder.forType(FormRecord.class).bind(request);
+    assertNull(record.name());
+    assertNull(record.tags());
+    assertEquals(0, record.count());
+    assertFalse(record.active());
+    assertNull(record.unsupported());
+  }
+
+  public record FormRecord(String name, String[] tags, int count, boolean active, Object unsupported) {
+  }
+
+}